@@ -0,0 +1,63 @@
+package org.payvyne.transaction.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.payvyne.transaction.security.AccessTokenService;
+import org.payvyne.transaction.security.CachingPasswordEncoder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication cost per request for each mode of {@code SecurityConfig}: the Basic credential check as
+ * BasicAuthenticationFilter runs it, with the plain-text passwords of the default configuration, with bcrypt, and
+ * with bcrypt behind the verified-credential cache; and the verification of a bearer token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    @Param({"noop", "bcrypt", "bcrypt-cached", "token"})
+    public String mode;
+
+    private DaoAuthenticationProvider authenticationProvider;
+    private AccessTokenService accessTokenService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var passwordEncoder = switch (mode) {
+            case "noop", "token" -> NoOpPasswordEncoder.getInstance();
+            case "bcrypt" -> new BCryptPasswordEncoder(10);
+            case "bcrypt-cached" -> new CachingPasswordEncoder(new BCryptPasswordEncoder(10), 10_000, Duration.ofMinutes(5));
+            default -> throw new IllegalArgumentException(mode);
+        };
+        authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername("john123").password(passwordEncoder.encode("password")).roles("USER").build()));
+
+        accessTokenService = new AccessTokenService("benchmark-secret-benchmark-secret".getBytes(StandardCharsets.UTF_8), Duration.ofMinutes(15), Clock.systemUTC());
+        token = accessTokenService.issue(basic()).accessToken();
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return mode.equals("token") ? accessTokenService.verify(token).orElseThrow() : basic();
+    }
+
+    private Authentication basic() {
+        return authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("john123", "password"));
+    }
+}
@@ -0,0 +1,75 @@
+package org.payvyne.transaction.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.payvyne.transaction.ratelimit.AdaptiveConcurrencyLimit;
+import org.payvyne.transaction.ratelimit.RateLimitFilter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the rate limit adds to each request, with eight threads sharing the filter. With a single user every
+ * thread takes from the same token bucket and concurrency limit, the worst case for their atomics. The limits are set
+ * high enough that nothing is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RateLimitFilterBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+    private static final List<String> PATHS = List.of("/api/v1/transaction/search", "/api/v1/transaction/42", "/api/v1/transaction/stats");
+
+    @Param({"1", "1000"})
+    public int users;
+
+    private RateLimitFilter filter;
+    private SecurityContext[] contexts;
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitFilter(new RateLimitFilter.Limit(1e9, 1_000_000), Map.of(), 100_000,
+                new AdaptiveConcurrencyLimit(1_000, 1_000, 1_000, Duration.ofSeconds(1)), new SimpleMeterRegistry());
+        contexts = new SecurityContext[users];
+        for (int i = 0; i < users; i++) {
+            contexts[i] = new SecurityContextImpl(new UsernamePasswordAuthenticationToken("user" + i, null, List.of()));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+        MockHttpServletRequest[] requests;
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        @Setup
+        public void setUp() {
+            requests = PATHS.stream().map(path -> new MockHttpServletRequest("GET", path)).toArray(MockHttpServletRequest[]::new);
+        }
+    }
+
+    @Benchmark
+    public int filter(Requests requests) throws ServletException, IOException {
+        final var random = ThreadLocalRandom.current();
+        SecurityContextHolder.setContext(contexts[random.nextInt(users)]);
+        filter.doFilter(requests.requests[random.nextInt(PATHS.size())], requests.response, CHAIN);
+        return requests.response.getStatus();
+    }
+}
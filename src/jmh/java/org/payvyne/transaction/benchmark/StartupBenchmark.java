@@ -0,0 +1,183 @@
+package org.payvyne.transaction.benchmark;
+
+import org.payvyne.transaction.Application;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Cold start of the service, each run in a new JVM: the startup time Spring Boot reports (JVM start to application
+ * ready) and the time from launching the process to the first answered request. Compares the default configuration
+ * with the {@code fast-start} profile, without and with the AppCDS archive of the {@code cds} Maven profile. Medians
+ * are printed and written to {@code target/startup-result.json} so they can be tracked from build to build.
+ * <p>
+ * Not a JMH benchmark: every sample needs a fresh process. Build the application jar and archive first, with the
+ * runtime the benchmark runs on:
+ * <pre>
+ * mvn -Pcds package -DskipTests
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.payvyne.transaction.benchmark.StartupBenchmark -Djmh.args="runs=10"
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder().encodeToString("john123:password".getBytes(StandardCharsets.UTF_8));
+    private static final Pattern STARTED = Pattern.compile("Started Application in [0-9.]+ seconds \\(JVM running for ([0-9.]+)\\)");
+    private static final Path ARCHIVE = Path.of("target", "transaction-service.jsa");
+    private static final Path CLASSPATH = Path.of("target", "classpath.txt");
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var options = new HashMap<>(Map.of("variants", "default,fast-start,fast-start+cds", "runs", "5"));
+        for (String arg : args) {
+            final var separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        final var runs = Integer.parseInt(options.get("runs"));
+        final var classpath = classpath();
+
+        final var results = new ArrayList<String>();
+        System.out.printf("%-16s %6s %12s %18s%n", "variant", "runs", "startup s", "first request s");
+        for (String variant : options.get("variants").split(",")) {
+            final var command = command(variant, classpath);
+            if (command == null) {
+                System.out.printf("%-16s skipped, %s not found: build it with mvn -Pcds package -DskipTests%n", variant, ARCHIVE);
+                continue;
+            }
+            final var startups = new double[runs];
+            final var firstRequests = new double[runs];
+            for (int run = 0; run < runs; run++) {
+                final var sample = start(command);
+                startups[run] = sample[0];
+                firstRequests[run] = sample[1];
+            }
+            System.out.printf("%-16s %6d %12.3f %18.3f%n", variant, runs, median(startups), median(firstRequests));
+            results.add(String.format("{\"variant\":\"%s\",\"runs\":%d,\"startupSeconds\":%.3f,\"firstRequestSeconds\":%.3f}", variant, runs, median(startups), median(firstRequests)));
+        }
+        Files.writeString(Path.of("target", "startup-result.json"), "[" + String.join(",\n", results) + "]\n");
+    }
+
+    /**
+     * The jars the {@code cds} profile trained the archive with, which a run must use for the archive to apply;
+     * the benchmark's own classpath when they have not been built.
+     */
+    private static String classpath() throws IOException {
+        if (!Files.exists(CLASSPATH)) {
+            return System.getProperty("java.class.path");
+        }
+        try (var jars = Files.list(Path.of("target"))) {
+            final var applicationJar = jars.filter(jar -> jar.getFileName().toString().endsWith("-app.jar")).findFirst().orElseThrow();
+            return applicationJar + File.pathSeparator + Files.readString(CLASSPATH).trim();
+        }
+    }
+
+    private static List<String> command(String variant, String classpath) {
+        final var command = new ArrayList<>(List.of(ProcessHandle.current().info().command().orElse("java")));
+        final var profiles = switch (variant) {
+            case "default" -> "default";
+            case "fast-start" -> "fast-start";
+            case "fast-start+cds" -> {
+                if (!Files.exists(ARCHIVE) || !Files.exists(CLASSPATH)) {
+                    yield null;
+                }
+                command.add("-XX:SharedArchiveFile=" + ARCHIVE);
+                yield "fast-start";
+            }
+            default -> throw new IllegalArgumentException("Unknown variant " + variant + ", expected default, fast-start or fast-start+cds");
+        };
+        if (profiles == null) {
+            return null;
+        }
+        command.addAll(List.of("-classpath", classpath, Application.class.getName(), "--spring.profiles.active=" + profiles,
+                "--spring.jpa.show-sql=false", "--logging.level.root=WARN", "--logging.level." + Application.class.getName() + "=INFO"));
+        return command;
+    }
+
+    /**
+     * @return the reported startup and the time to the first answered request, in seconds
+     */
+    private static double[] start(List<String> command) throws Exception {
+        final int port;
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final var withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+
+        final var launched = System.nanoTime();
+        final var process = new ProcessBuilder(withPort).redirectErrorStream(true).start();
+        try {
+            final var startup = CompletableFuture.supplyAsync(() -> reportedStartup(process));
+            final var http = HttpClient.newHttpClient();
+            final var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/transaction/stats?fromDate=2020-01-01&toDate=2020-01-31"))
+                    .header("Authorization", AUTHORIZATION).timeout(Duration.ofSeconds(30)).build();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("The application exited with " + process.exitValue());
+                }
+                try {
+                    final var response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("The first request was answered with " + response.statusCode());
+                    }
+                    break;
+                } catch (ConnectException ex) {
+                    Thread.sleep(5);
+                }
+            }
+            final var firstRequest = (System.nanoTime() - launched) / 1e9;
+            return new double[]{startup.get(30, TimeUnit.SECONDS), firstRequest};
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static double reportedStartup(Process process) {
+        try {
+            final var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final var matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    // keep draining the output so the application never blocks on a full pipe
+                    CompletableFuture.runAsync(() -> reader.lines().forEach(ignored -> {
+                    }));
+                    return Double.parseDouble(matcher.group(1));
+                }
+            }
+            throw new IllegalStateException("The application stopped before reporting its startup");
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static double median(double[] samples) {
+        final var sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
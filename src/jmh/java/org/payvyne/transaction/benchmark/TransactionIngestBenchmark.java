@@ -0,0 +1,67 @@
+package org.payvyne.transaction.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.repository.TransactionRepository;
+import org.payvyne.transaction.service.TransactionService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second stored through the single-insert path ({@link TransactionService#save}, one database
+ * transaction per row) against the bulk path ({@link TransactionService#saveAll}, chunked JDBC batches).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionIngestBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionRepository transactionRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionService = context.getBean(TransactionService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Long singleInsert() {
+        Long lastId = null;
+        for (int i = 0; i < ROWS; i++) {
+            lastId = transactionService.save(BenchmarkContext.newTransaction(i)).getTransactionId();
+        }
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Transaction> batchInsert() {
+        final var transactions = new ArrayList<Transaction>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(BenchmarkContext.newTransaction(i));
+        }
+        return transactionService.saveAll(transactions);
+    }
+}
@@ -0,0 +1,62 @@
+package org.payvyne.transaction.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.model.TransactionRequestDto;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON cost of the two hottest payloads: writing a page of transactions and reading a create request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionJsonBenchmark {
+
+    private static final byte[] CREATE_REQUEST = """
+            {"amount":100.00,"currencyCode":"GBP","transactionDate":"2020-01-01T13:30:30","comment":"Create a new transaction"}
+            """.getBytes();
+
+    @Param({"25", "200"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PageImpl<Transaction> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        final var transactions = new ArrayList<Transaction>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            final var transaction = BenchmarkContext.newTransaction(i);
+            transaction.setTransactionId((long) i);
+            transaction.setCreatedDate(transaction.getTransactionDate());
+            transaction.setModifiedDate(transaction.getTransactionDate());
+            transactions.add(transaction);
+        }
+        page = new PageImpl<>(transactions, PageRequest.of(0, pageSize, Sort.by("transactionDate")), 10_000);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public TransactionRequestDto readCreateRequest() throws IOException {
+        return objectMapper.readValue(CREATE_REQUEST, TransactionRequestDto.class);
+    }
+}
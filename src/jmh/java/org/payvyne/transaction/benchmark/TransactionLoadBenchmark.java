@@ -0,0 +1,153 @@
+package org.payvyne.transaction.benchmark;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load comparing the platform and virtual thread execution modes
+ * ({@code transaction.execution.mode}). Every simulated client sends its next request as soon as the previous
+ * one completes: a keyset page read ({@code GET /transaction?cursor=}) or, for {@code writes} percent of
+ * requests, a create. Prints throughput and latency percentiles per mode and client count.
+ * <p>
+ * Not a JMH benchmark: JMH cannot drive thousands of concurrent clients. The virtual mode needs a Java 21+ runtime:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.payvyne.transaction.benchmark.TransactionLoadBenchmark \
+ *     -Dbenchmark.java=$JAVA21_HOME/bin/java -Djmh.args="clients=1000,5000,10000 duration=30"
+ * </pre>
+ */
+public final class TransactionLoadBenchmark {
+
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder().encodeToString("john123:password".getBytes(StandardCharsets.UTF_8));
+
+    private TransactionLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var options = new HashMap<>(Map.of("modes", "platform,virtual", "clients", "1000,2500,5000,10000", "warmup", "10", "duration", "30", "rows", "100000", "writes", "10", "pool", "10"));
+        for (String arg : args) {
+            final var separator = arg.indexOf('=');
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        final var clientCounts = Arrays.stream(options.get("clients").split(",")).mapToInt(Integer::parseInt).toArray();
+        final var warmup = Duration.ofSeconds(Long.parseLong(options.get("warmup")));
+        final var duration = Duration.ofSeconds(Long.parseLong(options.get("duration")));
+        final var writes = Integer.parseInt(options.get("writes"));
+
+        System.out.printf("%-9s %8s %12s %10s %10s %10s %8s%n", "mode", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (String mode : options.get("modes").split(",")) {
+            try (var context = BenchmarkContext.startServer("transaction.execution.mode=" + mode, "transaction.rate-limit.enabled=false",
+                    "spring.datasource.hikari.maximum-pool-size=" + options.get("pool"),
+                    "server.tomcat.max-connections=" + (Arrays.stream(clientCounts).max().orElseThrow() + 1000),
+                    "server.tomcat.accept-count=10000")) {
+                BenchmarkContext.seed(context, Integer.parseInt(options.get("rows")));
+                final var baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/v1/transaction");
+                for (int clients : clientCounts) {
+                    run(baseUri, clients, warmup, writes);
+                    final var result = run(baseUri, clients, duration, writes);
+                    System.out.printf("%-9s %8d %12.1f %10.2f %10.2f %10.2f %8d%n", mode, clients, result.throughput(), result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors());
+                }
+            }
+        }
+    }
+
+    private static Result run(URI baseUri, int clients, Duration duration, int writes) throws InterruptedException {
+        final var executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        final var http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build();
+        final var read = HttpRequest.newBuilder(URI.create(baseUri + "?cursor=&size=25")).header("Authorization", AUTHORIZATION).timeout(Duration.ofMinutes(1)).GET().build();
+
+        final var done = new CountDownLatch(clients);
+        final var deadline = System.nanoTime() + duration.toNanos();
+        final var loops = new ClientLoop[clients];
+        for (int i = 0; i < clients; i++) {
+            loops[i] = new ClientLoop(http, baseUri, read, writes, deadline, done);
+        }
+        final var started = System.nanoTime();
+        for (ClientLoop loop : loops) {
+            loop.next();
+        }
+        done.await(duration.toSeconds() + 120, TimeUnit.SECONDS);
+        final var elapsed = System.nanoTime() - started;
+        executor.shutdownNow();
+
+        final var latencies = Arrays.stream(loops).flatMapToLong(loop -> Arrays.stream(loop.latencies, 0, loop.count)).sorted().toArray();
+        final var errors = Arrays.stream(loops).mapToLong(loop -> loop.errors).sum();
+        return new Result(latencies, errors, latencies.length / (elapsed / 1e9));
+    }
+
+    /**
+     * One client: requests are sent strictly one after another, so each loop's fields are only touched by one
+     * callback at a time.
+     */
+    private static final class ClientLoop {
+        private final HttpClient http;
+        private final URI baseUri;
+        private final HttpRequest read;
+        private final int writes;
+        private final long deadline;
+        private final CountDownLatch done;
+        private long[] latencies = new long[256];
+        private int count;
+        private long errors;
+
+        ClientLoop(HttpClient http, URI baseUri, HttpRequest read, int writes, long deadline, CountDownLatch done) {
+            this.http = http;
+            this.baseUri = baseUri;
+            this.read = read;
+            this.writes = writes;
+            this.deadline = deadline;
+            this.done = done;
+        }
+
+        void next() {
+            if (System.nanoTime() >= deadline) {
+                done.countDown();
+                return;
+            }
+            final var request = ThreadLocalRandom.current().nextInt(100) < writes ? write() : read;
+            final var started = System.nanoTime();
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                if (ex != null || response.statusCode() >= 300) {
+                    errors++;
+                } else {
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - started;
+                }
+                next();
+            });
+        }
+
+        private HttpRequest write() {
+            final var minute = ThreadLocalRandom.current().nextInt(60);
+            final var body = "{\"amount\":10.50,\"currencyCode\":\"GBP\",\"transactionDate\":\"2021-01-01T10:%02d:00\",\"comment\":\"load\"}".formatted(minute);
+            return HttpRequest.newBuilder(baseUri).header("Authorization", AUTHORIZATION).header("Content-Type", "application/json")
+                    .timeout(Duration.ofMinutes(1)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+    }
+
+    private record Result(long[] latencies, long errors, double throughput) {
+
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            final var index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.payvyne.transaction.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.payvyne.transaction.model.CursorPage;
+import org.payvyne.transaction.model.TransactionCursor;
+import org.payvyne.transaction.model.TransactionSummary;
+import org.payvyne.transaction.repository.TransactionRepository;
+import org.payvyne.transaction.service.TransactionService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of fetching one page at increasing depth with OFFSET paging (plus its count query) and with keyset
+ * paging. Keyset latency should stay flat as {@code page} grows; offset latency grows with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 25;
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"0", "100", "1000", "3900"})
+    public int page;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private PageRequest offsetPage;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionService = context.getBean(TransactionService.class);
+
+        BenchmarkContext.seed(context, rows);
+
+        final var sort = Sort.by(Sort.Direction.DESC, "transactionDate", "transactionId");
+        offsetPage = PageRequest.of(page, PAGE_SIZE, sort);
+        cursor = page == 0 ? "" : TransactionCursor.of(transactionService.find(null, PageRequest.of(page * PAGE_SIZE - 1, 1, sort)).getContent().get(0)).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(TransactionRepository.class).deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Page<TransactionSummary> offset() {
+        return transactionService.find(null, offsetPage);
+    }
+
+    @Benchmark
+    public CursorPage<TransactionSummary> keyset() {
+        return transactionService.find(null, cursor, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,83 @@
+package org.payvyne.transaction.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.payvyne.transaction.model.TransactionSearchCriteria;
+import org.payvyne.transaction.repository.TransactionRepository;
+import org.payvyne.transaction.repository.TransactionSpecifications;
+import org.payvyne.transaction.service.TransactionService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one search page, serialized as the endpoint would, when it is loaded as managed entities compared
+ * with summaries selected column by column, with all fields or only a few. Run with {@code -prof gc} to compare
+ * the allocation per page as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionProjectionBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final Set<String> FEW_FIELDS = Set.of("amount", "currencyCode");
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"25", "500"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionRepository transactionRepository;
+    private ObjectMapper objectMapper;
+    private PageRequest page;
+    private int days;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionService = context.getBean(TransactionService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        BenchmarkContext.seed(context, rows);
+        page = PageRequest.of(0, pageSize, Sort.Direction.DESC, "transactionDate");
+        days = Math.max(1, rows / (24 * 60) - 7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactionRepository.findAll(TransactionSpecifications.matching(randomWeek()), page));
+    }
+
+    @Benchmark
+    public byte[] summaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactionService.find(randomWeek(), null, page));
+    }
+
+    @Benchmark
+    public byte[] summariesWithFewFields() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactionService.find(randomWeek(), FEW_FIELDS, page));
+    }
+
+    private TransactionSearchCriteria randomWeek() {
+        final var fromDate = FIRST_DAY.plusDays(ThreadLocalRandom.current().nextInt(days));
+        return TransactionSearchCriteria.between(fromDate, fromDate.plusDays(7));
+    }
+}
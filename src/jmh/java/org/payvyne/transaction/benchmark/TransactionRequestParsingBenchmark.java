@@ -0,0 +1,87 @@
+package org.payvyne.transaction.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.payvyne.transaction.api.TransactionRequestParser;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.TransactionRequestDto;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Currency;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Create-request parsing through {@link TransactionRequestParser} against the previous path (data binding to
+ * {@link TransactionRequestDto}, a new formatter per request and the entity builder), for valid and invalid input.
+ * Run with {@code -prof gc} to compare {@code gc.alloc.rate.norm} (bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionRequestParsingBenchmark {
+
+    private static final byte[] VALID_REQUEST = """
+            {"amount":100.00,"currencyCode":"GBP","transactionDate":"2020-01-01T13:30:30","comment":"Create a new transaction"}
+            """.getBytes();
+    private static final byte[] INVALID_REQUEST = """
+            {"amount":100.00,"currencyCode":"GBP","transactionDate":"2020-01-01 13:30","comment":"Create a new transaction"}
+            """.getBytes();
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public Transaction dtoAndBuilder() throws IOException {
+        return dtoAndBuilder(VALID_REQUEST);
+    }
+
+    @Benchmark
+    public Transaction tokenParser() throws IOException {
+        return tokenParser(VALID_REQUEST);
+    }
+
+    @Benchmark
+    public Transaction dtoAndBuilderInvalid() throws IOException {
+        return dtoAndBuilder(INVALID_REQUEST);
+    }
+
+    @Benchmark
+    public Transaction tokenParserInvalid() throws IOException {
+        return tokenParser(INVALID_REQUEST);
+    }
+
+    private Transaction dtoAndBuilder(byte[] request) throws IOException {
+        final var transactionRequestDto = objectMapper.readValue(request, TransactionRequestDto.class);
+        Currency.getInstance(transactionRequestDto.currencyCode());
+        try {
+            return Transaction.builder()
+                    .transactionStatus(TransactionStatus.CREATED)
+                    .transactionDate(LocalDateTime.parse(transactionRequestDto.transactionDate(), DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")))
+                    .amount(transactionRequestDto.amount())
+                    .currencyCode(transactionRequestDto.currencyCode())
+                    .comment(transactionRequestDto.comment())
+                    .build();
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private Transaction tokenParser(byte[] request) throws IOException {
+        try (var parser = objectMapper.getFactory().createParser(request)) {
+            final var transaction = new Transaction();
+            return TransactionRequestParser.read(parser, transaction) == null ? transaction : null;
+        }
+    }
+}
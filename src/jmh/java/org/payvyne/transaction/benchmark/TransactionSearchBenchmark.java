@@ -0,0 +1,99 @@
+package org.payvyne.transaction.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.CursorPage;
+import org.payvyne.transaction.model.TransactionSearchCriteria;
+import org.payvyne.transaction.model.TransactionSummary;
+import org.payvyne.transaction.service.TransactionService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a first keyset page of {@code /transaction/search} for the common filter combinations, each within a
+ * random week. The H2 plan of every combination is printed at setup to show which index it uses. For the 10M row
+ * dataset run with {@code -p rows=10000000 -jvmArgs -Xmx8g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionSearchBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int PAGE_SIZE = 25;
+    private static final String WEEK = "transaction_date between timestamp '2020-03-01 00:00:00' and timestamp '2020-03-08 00:00:00'";
+    private static final Map<String, String> PLANS = Map.of(
+            "status", WEEK + " and transaction_status = 'APPROVED'",
+            "currency", WEEK + " and currency_code = 'EUR'",
+            "currencyAndStatus", WEEK + " and currency_code = 'EUR' and transaction_status = 'APPROVED'",
+            "amountRange", WEEK + " and amount between 100 and 200",
+            "commentPrefix", WEEK + " and comment like 'benchmark 1234%'");
+
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private int days;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionService = context.getBean(TransactionService.class);
+        BenchmarkContext.seed(context, rows);
+        days = Math.max(1, rows / (24 * 60) - 7);
+
+        final var jdbcTemplate = context.getBean(JdbcTemplate.class);
+        PLANS.forEach((name, predicate) -> System.out.printf("%n%s: %s%n", name, jdbcTemplate.queryForObject(
+                "explain select * from transaction where " + predicate + " order by transaction_date desc, id desc limit " + (PAGE_SIZE + 1), String.class).replaceAll("\\s+", " ")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<TransactionSummary> dateRange() {
+        return search(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public CursorPage<TransactionSummary> status() {
+        return search(TransactionStatus.APPROVED, null, null, null, null);
+    }
+
+    @Benchmark
+    public CursorPage<TransactionSummary> currency() {
+        return search(null, "EUR", null, null, null);
+    }
+
+    @Benchmark
+    public CursorPage<TransactionSummary> currencyAndStatus() {
+        return search(TransactionStatus.APPROVED, "EUR", null, null, null);
+    }
+
+    @Benchmark
+    public CursorPage<TransactionSummary> amountRange() {
+        return search(null, null, BigDecimal.valueOf(100), BigDecimal.valueOf(200), null);
+    }
+
+    @Benchmark
+    public CursorPage<TransactionSummary> commentPrefix() {
+        return search(null, null, null, null, "benchmark " + ThreadLocalRandom.current().nextInt(1, 10_000));
+    }
+
+    private CursorPage<TransactionSummary> search(TransactionStatus transactionStatus, String currencyCode, BigDecimal minAmount, BigDecimal maxAmount, String commentPrefix) {
+        final var fromDate = FIRST_DAY.plusDays(ThreadLocalRandom.current().nextInt(days));
+        return transactionService.find(new TransactionSearchCriteria(fromDate, fromDate.plusDays(7), transactionStatus, currencyCode, minAmount, maxAmount, commentPrefix), null, "", PAGE_SIZE);
+    }
+}
@@ -0,0 +1,106 @@
+package org.payvyne.transaction.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.TransactionSearchCriteria;
+import org.payvyne.transaction.model.TransactionSummary;
+import org.payvyne.transaction.model.TransactionUpdateDto;
+import org.payvyne.transaction.repository.TransactionRepository;
+import org.payvyne.transaction.service.TransactionService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of the {@link TransactionService} operations behind each endpoint, against the embedded H2 database
+ * seeded with {@code rows} transactions. Larger datasets are selected with e.g. {@code -p rows=10000000}
+ * (give the forked JVM enough heap with {@code -jvmArgs -Xmx8g}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final String RETRIED_KEY = "benchmark-retried";
+    private static final Pageable SEARCH_PAGE = PageRequest.of(0, 25, Sort.Direction.DESC, "transactionDate");
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionRepository transactionRepository;
+    private int days;
+    private final AtomicLong idempotencyKeys = new AtomicLong();
+    private Transaction retriedTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionService = context.getBean(TransactionService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        BenchmarkContext.seed(context, rows);
+        days = Math.max(1, rows / (24 * 60));
+        retriedTransaction = BenchmarkContext.newTransaction(0);
+        transactionService.save(retriedTransaction, RETRIED_KEY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction save() {
+        return transactionService.save(BenchmarkContext.newTransaction(ThreadLocalRandom.current().nextInt(rows)));
+    }
+
+    @Benchmark
+    public Long saveWithIdempotencyKey() {
+        return transactionService.save(BenchmarkContext.newTransaction(ThreadLocalRandom.current().nextInt(rows)), "benchmark-" + idempotencyKeys.incrementAndGet());
+    }
+
+    @Benchmark
+    public Long saveRetriedWithIdempotencyKey() {
+        return transactionService.save(retriedTransaction, RETRIED_KEY);
+    }
+
+    @Benchmark
+    public Optional<Transaction> find() {
+        return transactionService.find(randomId());
+    }
+
+    @Benchmark
+    public Optional<Transaction> findUncached() {
+        return transactionRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public Page<TransactionSummary> search() {
+        final var fromDate = FIRST_DAY.plusDays(ThreadLocalRandom.current().nextInt(days));
+        return transactionService.find(TransactionSearchCriteria.between(fromDate, fromDate.plusDays(7)), null, SEARCH_PAGE);
+    }
+
+    @Benchmark
+    public void update() {
+        final var random = ThreadLocalRandom.current();
+        transactionService.update(randomId(), new TransactionUpdateDto(random.nextBoolean() ? TransactionStatus.APPROVED : TransactionStatus.ACTIVE, "benchmark update"), null);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1L);
+    }
+}
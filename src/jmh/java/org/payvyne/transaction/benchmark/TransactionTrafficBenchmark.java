@@ -0,0 +1,384 @@
+package org.payvyne.transaction.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.payvyne.transaction.api.TransactionFixtures;
+import org.payvyne.transaction.model.TransactionBatchResultDto;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end load with a production-like mix of creates, reads, searches, updates and deletes against the real
+ * {@code /api/v1/transaction} endpoints, authenticated with the integration tests' HTTP Basic credentials. It seeds
+ * {@code rows} transactions from {@link TransactionFixtures} through the batch endpoint, warms up, then measures each
+ * operation: throughput, latency percentiles from an HdrHistogram, and errors by status. The results are printed and
+ * written to {@code target/load-test-result.json} with the commit they were measured on, so runs can be compared from
+ * commit to commit; each histogram is included in HdrHistogram's compressed Base64 form for finer comparisons.
+ * <p>
+ * Every client is a thread sending its next request when the previous one completes. With {@code rate} set, clients
+ * send on a fixed schedule instead, and latency is measured from when a request was due rather than when it was sent,
+ * so a stalled service is not hidden by clients waiting on it. Reads and updates target the seeded transactions; a
+ * client only deletes transactions it created itself.
+ * <p>
+ * Not a JMH benchmark: the service is driven over HTTP. It starts the application on an embedded H2 database, with
+ * the rate limit off since every client is the same user, unless {@code url} points at a running service:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.payvyne.transaction.benchmark.TransactionTrafficBenchmark \
+ *     -Djmh.args="rows=100000 clients=32 duration=120 mix=create:20,get:50,search:20,update:8,delete:2"
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.payvyne.transaction.benchmark.TransactionTrafficBenchmark \
+ *     -Djmh.args="url=http://localhost:8080 rate=500 result=target/load-test-postgres.json"
+ * </pre>
+ */
+public final class TransactionTrafficBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 500;
+    private static final String[] CURRENCIES = {"GBP", "EUR", "USD"};
+    private static final String[] UPDATED_STATUSES = {"ACTIVE", "APPROVED", "FAILED"};
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private enum Operation {
+        CREATE(201), GET(200), SEARCH(200), UPDATE(200), DELETE(204);
+
+        private final int expectedStatus;
+
+        Operation(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+
+        String label() {
+            return name().toLowerCase();
+        }
+    }
+
+    private TransactionTrafficBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var options = new HashMap<>(Map.of("url", "", "rows", "10000", "clients", "16", "warmup", "10", "duration", "60", "rate", "0",
+                "mix", "create:20,get:50,search:20,update:8,delete:2", "username", TransactionFixtures.USERNAME, "password", TransactionFixtures.PASSWORD,
+                "result", "target/load-test-result.json"));
+        for (String arg : args) {
+            final var separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        final var rows = Integer.parseInt(options.get("rows"));
+        if (rows < 1) {
+            throw new IllegalArgumentException("Reads and updates need seeded transactions, rows must be positive");
+        }
+        final var clients = Integer.parseInt(options.get("clients"));
+        final var rate = Double.parseDouble(options.get("rate"));
+        final var mix = mix(options.get("mix"));
+        final var authorization = "Basic " + Base64.getEncoder().encodeToString((options.get("username") + ":" + options.get("password")).getBytes(StandardCharsets.UTF_8));
+
+        try (var context = options.get("url").isEmpty() ? BenchmarkContext.startServer("transaction.rate-limit.enabled=false") : null) {
+            final var baseUri = URI.create((context == null ? options.get("url") : "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()) + "/api/v1/transaction");
+            final var http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+
+            final var seedStarted = System.nanoTime();
+            final var ids = seed(http, baseUri, authorization, rows);
+            System.out.printf("seeded %d transactions in %.1f s%n", ids.length, (System.nanoTime() - seedStarted) / 1e9);
+
+            final var workload = new Workload(http, baseUri, authorization, ids, mix, new AtomicInteger(rows));
+            run(workload, clients, rate, Duration.ofSeconds(Long.parseLong(options.get("warmup"))));
+            final var results = run(workload, clients, rate, Duration.ofSeconds(Long.parseLong(options.get("duration"))));
+
+            print(results);
+            write(Path.of(options.get("result")), options, results);
+        }
+    }
+
+    /**
+     * @return e.g. {@code create:20,get:50} as the cumulative weights {@code [20, 70, 70, 70, 70]}, in {@link Operation} order
+     */
+    private static int[] mix(String mix) {
+        final var weights = new int[Operation.values().length];
+        for (String entry : mix.split(",")) {
+            final var separator = entry.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected operation:weight in the mix, got " + entry);
+            }
+            weights[Operation.valueOf(entry.substring(0, separator).trim().toUpperCase()).ordinal()] = Integer.parseInt(entry.substring(separator + 1).trim());
+        }
+        Arrays.parallelPrefix(weights, Integer::sum);
+        if (weights[weights.length - 1] <= 0) {
+            throw new IllegalArgumentException("The mix must give at least one operation a positive weight");
+        }
+        return weights;
+    }
+
+    private static long[] seed(HttpClient http, URI baseUri, String authorization, int rows) throws IOException, InterruptedException {
+        final var ids = new long[rows];
+        for (int from = 0; from < rows; from += SEED_BATCH_SIZE) {
+            final var batch = TransactionFixtures.transactionRequests(from, Math.min(SEED_BATCH_SIZE, rows - from));
+            final var request = HttpRequest.newBuilder(URI.create(baseUri + "/batch")).header("Authorization", authorization).header("Content-Type", "application/json")
+                    .timeout(Duration.ofMinutes(5)).POST(HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(batch))).build();
+            final var response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding was answered with " + response.statusCode() + ": " + new String(response.body(), StandardCharsets.UTF_8));
+            }
+            final var created = OBJECT_MAPPER.readValue(response.body(), new TypeReference<List<TransactionBatchResultDto>>() {
+            });
+            for (TransactionBatchResultDto result : created) {
+                ids[from + result.row()] = result.transactionId();
+            }
+        }
+        return ids;
+    }
+
+    private static Map<Operation, OperationResult> run(Workload workload, int clients, double rate, Duration duration) throws InterruptedException {
+        final var interval = rate > 0 ? (long) (clients * 1e9 / rate) : 0;
+        final var deadline = System.nanoTime() + duration.toNanos();
+        final var loops = new ArrayList<ClientLoop>(clients);
+        final var executor = Executors.newFixedThreadPool(clients);
+        final var started = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            final var loop = new ClientLoop(workload, interval, deadline);
+            loops.add(loop);
+            executor.execute(loop);
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(duration.toSeconds() + 120, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        final var elapsed = (System.nanoTime() - started) / 1e9;
+
+        final var results = new EnumMap<Operation, OperationResult>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            final var latencies = new Histogram(3);
+            final var errors = new TreeMap<String, Long>();
+            for (ClientLoop loop : loops) {
+                latencies.add(loop.latencies.get(operation));
+                loop.errors.get(operation).forEach((status, count) -> errors.merge(status, count, Long::sum));
+            }
+            results.put(operation, new OperationResult(operation.label(), latencies, errors, elapsed));
+        }
+        return results;
+    }
+
+    private static void print(Map<Operation, OperationResult> results) {
+        System.out.printf("%-8s %10s %10s %9s %9s %9s %9s %9s %8s %8s%n", "op", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "error %");
+        final var rows = new ArrayList<>(results.values());
+        rows.add(OperationResult.total(results.values()));
+        for (OperationResult result : rows) {
+            System.out.printf("%-8s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d %8.2f%n", result.operation(), result.requests(), result.throughput(),
+                    result.percentile(50), result.percentile(90), result.percentile(99), result.percentile(99.9), result.percentile(100), result.errorCount(), result.errorRate() * 100);
+        }
+        for (OperationResult result : results.values()) {
+            if (!result.errors().isEmpty()) {
+                System.out.printf("%s errors: %s%n", result.operation(), result.errors());
+            }
+        }
+    }
+
+    private static void write(Path path, Map<String, String> options, Map<Operation, OperationResult> results) throws IOException {
+        final var operations = new ArrayList<String>();
+        final var rows = new ArrayList<>(results.values());
+        rows.add(OperationResult.total(results.values()));
+        for (OperationResult result : rows) {
+            final var errors = result.errors().entrySet().stream().map(error -> String.format("\"%s\":%d", error.getKey(), error.getValue())).collect(Collectors.joining(","));
+            operations.add(String.format("{\"operation\":\"%s\",\"requests\":%d,\"throughput\":%.1f,\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f,\"errorRate\":%.5f,\"errors\":{%s},\"histogram\":\"%s\"}",
+                    result.operation(), result.requests(), result.throughput(), result.percentile(50), result.percentile(90), result.percentile(99), result.percentile(99.9),
+                    result.percentile(100), result.errorRate(), errors, result.encodedLatencies()));
+        }
+        final var json = String.format("{\"commit\":\"%s\",\"timestamp\":\"%s\",\"target\":\"%s\",\"rows\":%s,\"clients\":%s,\"rate\":%s,\"warmupSeconds\":%s,\"durationSeconds\":%s,\"mix\":\"%s\",\"latencyUnit\":\"milliseconds\",%n\"operations\":[%n%s]}%n",
+                commit(), Instant.now(), options.get("url").isEmpty() ? "embedded" : options.get("url"), options.get("rows"), options.get("clients"), options.get("rate"),
+                options.get("warmup"), options.get("duration"), options.get("mix"), String.join(",\n", operations));
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.writeString(path, json);
+        System.out.println("results written to " + path);
+    }
+
+    /**
+     * @return the abbreviated commit being measured, {@code unknown} outside a git checkout
+     */
+    private static String commit() {
+        try {
+            final var process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            final var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return process.waitFor() == 0 ? output : "unknown";
+        } catch (IOException ex) {
+            return "unknown";
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+
+    /**
+     * What every client shares: the HTTP client, the seeded ids and the sequence numbering new transactions.
+     */
+    private record Workload(HttpClient http, URI baseUri, String authorization, long[] ids, int[] mix, AtomicInteger sequence) {
+
+        Operation next(ThreadLocalRandom random) {
+            final var value = random.nextInt(mix[mix.length - 1]);
+            for (Operation operation : Operation.values()) {
+                if (value < mix[operation.ordinal()]) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException("Unreachable");
+        }
+
+        HttpRequest request(Operation operation, ThreadLocalRandom random, Long created) throws IOException {
+            final var builder = HttpRequest.newBuilder().header("Authorization", authorization).timeout(Duration.ofMinutes(1));
+            return switch (operation) {
+                case CREATE -> builder.uri(baseUri).header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(TransactionFixtures.transactionRequest(sequence.getAndIncrement())))).build();
+                case GET -> builder.uri(URI.create(baseUri + "/" + randomId(random))).GET().build();
+                case SEARCH -> {
+                    final var days = Math.max(1, ids.length / (int) TimeUnit.DAYS.toMinutes(1));
+                    final var fromDate = TransactionFixtures.FIRST_TRANSACTION_DATE.toLocalDate().plusDays(random.nextInt(days));
+                    yield builder.uri(URI.create(baseUri + "/search?fromDate=" + fromDate + "&toDate=" + fromDate.plusDays(6)
+                            + "&currencyCode=" + CURRENCIES[random.nextInt(CURRENCIES.length)] + "&size=25")).GET().build();
+                }
+                case UPDATE -> builder.uri(URI.create(baseUri + "/" + randomId(random))).header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"transactionStatus\":\"" + UPDATED_STATUSES[random.nextInt(UPDATED_STATUSES.length)] + "\",\"comment\":\"updated under load\"}")).build();
+                case DELETE -> builder.uri(URI.create(baseUri + "/" + created)).DELETE().build();
+            };
+        }
+
+        private long randomId(ThreadLocalRandom random) {
+            return ids[random.nextInt(ids.length)];
+        }
+    }
+
+    /**
+     * One client, on its own thread: its histograms and error counts are only read once the thread has finished.
+     */
+    private static final class ClientLoop implements Runnable {
+        private final Workload workload;
+        private final long interval;
+        private final long deadline;
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Map<String, Long>> errors = new EnumMap<>(Operation.class);
+        private final ArrayDeque<Long> created = new ArrayDeque<>();
+
+        ClientLoop(Workload workload, long interval, long deadline) {
+            this.workload = workload;
+            this.interval = interval;
+            this.deadline = deadline;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new Histogram(3));
+                errors.put(operation, new TreeMap<>());
+            }
+        }
+
+        @Override
+        public void run() {
+            final var random = ThreadLocalRandom.current();
+            // spread the scheduled clients over the interval rather than sending in bursts
+            var due = System.nanoTime() + (interval > 0 ? random.nextLong(interval) : 0);
+            while (due < deadline && !Thread.currentThread().isInterrupted()) {
+                for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+                var operation = workload.next(random);
+                if (operation == Operation.DELETE && created.isEmpty()) {
+                    operation = Operation.CREATE;
+                }
+                final var status = send(operation, random);
+                final var finished = System.nanoTime();
+                if (status.equals(String.valueOf(operation.expectedStatus))) {
+                    latencies.get(operation).recordValue(finished - due);
+                } else {
+                    errors.get(operation).merge(status, 1L, Long::sum);
+                }
+                due = interval > 0 ? due + interval : finished;
+            }
+        }
+
+        /**
+         * @return the response status, or the exception's name when there was no response
+         */
+        private String send(Operation operation, ThreadLocalRandom random) {
+            try {
+                final var request = workload.request(operation, random, operation == Operation.DELETE ? created.pollFirst() : null);
+                final var response = workload.http().send(request, HttpResponse.BodyHandlers.ofString());
+                if (operation == Operation.CREATE && response.statusCode() == operation.expectedStatus) {
+                    created.add(Long.parseLong(response.body()));
+                }
+                return String.valueOf(response.statusCode());
+            } catch (IOException ex) {
+                return ex.getClass().getSimpleName();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return ex.getClass().getSimpleName();
+            }
+        }
+    }
+
+    private record OperationResult(String operation, Histogram latencies, Map<String, Long> errors, double elapsedSeconds) {
+
+        static OperationResult total(Iterable<OperationResult> results) {
+            final var latencies = new Histogram(3);
+            final var errors = new TreeMap<String, Long>();
+            var elapsed = 0.0;
+            for (OperationResult result : results) {
+                latencies.add(result.latencies());
+                result.errors().forEach((status, count) -> errors.merge(status, count, Long::sum));
+                elapsed = result.elapsedSeconds();
+            }
+            return new OperationResult("total", latencies, errors, elapsed);
+        }
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        long requests() {
+            return latencies.getTotalCount() + errorCount();
+        }
+
+        double throughput() {
+            return latencies.getTotalCount() / elapsedSeconds;
+        }
+
+        double errorRate() {
+            return requests() == 0 ? 0 : (double) errorCount() / requests();
+        }
+
+        /**
+         * @return the latency at the percentile, in milliseconds, 0 without any successful request
+         */
+        double percentile(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+
+        String encodedLatencies() {
+            final var buffer = ByteBuffer.allocate(latencies.getNeededByteBufferCapacity());
+            final var length = latencies.encodeIntoCompressedByteBuffer(buffer);
+            return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.payvyne.transaction.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.*;
+import org.payvyne.transaction.api.TransactionCbor;
+import org.payvyne.transaction.api.TransactionRequestParser;
+import org.payvyne.transaction.domain.Transaction;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a batch of transactions as JSON, the way the list endpoints write them and the batch
+ * endpoint reads them, against the {@link TransactionCbor} layout. The bytes per transaction of each format are
+ * printed when the trial starts; run with {@code -prof gc} to compare the allocation per batch as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionWireFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"1000"})
+    public int batchSize;
+
+    private ObjectMapper objectMapper;
+    private JsonFactory cborFactory;
+    private List<Transaction> transactions;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        cborFactory = new CBORFactory();
+
+        transactions = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            final var transaction = BenchmarkContext.newTransaction(i);
+            transaction.setTransactionId((long) i);
+            transaction.setCreatedDate(transaction.getTransactionDate());
+            transaction.setModifiedDate(transaction.getTransactionDate());
+            transaction.setVersion(0L);
+            transactions.add(transaction);
+        }
+        encoded = encode();
+        if (decode().size() != batchSize) {
+            throw new IllegalStateException(format + " did not decode its own encoding");
+        }
+        System.out.printf("%n%s: %.1f bytes per transaction%n", format, (double) encoded.length / batchSize);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (format.equals("json")) {
+            return objectMapper.writeValueAsBytes(transactions);
+        }
+        final var outputStream = new ByteArrayOutputStream(batchSize * 64);
+        try (var generator = cborFactory.createGenerator(outputStream)) {
+            generator.writeStartArray(transactions, transactions.size());
+            for (Transaction transaction : transactions) {
+                TransactionCbor.write(generator, transaction);
+            }
+            generator.writeEndArray();
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public List<Transaction> decode() throws IOException {
+        return format.equals("json")
+                ? decode(objectMapper.getFactory(), TransactionRequestParser::read)
+                : decode(cborFactory, TransactionCbor::read);
+    }
+
+    private List<Transaction> decode(JsonFactory factory, Reader reader) throws IOException {
+        final var decoded = new ArrayList<Transaction>(batchSize);
+        try (var parser = factory.createParser(encoded)) {
+            parser.nextToken();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                final var transaction = new Transaction();
+                if (reader.read(parser, transaction) == null) {
+                    decoded.add(transaction);
+                }
+            }
+        }
+        return decoded;
+    }
+
+    private interface Reader {
+        String read(JsonParser parser, Transaction transaction) throws IOException;
+    }
+}
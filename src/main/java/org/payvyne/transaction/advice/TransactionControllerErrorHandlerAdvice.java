@@ -1,7 +1,15 @@
 package org.payvyne.transaction.advice;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.payvyne.transaction.exception.TransactionChangeStreamFullException;
+import org.payvyne.transaction.exception.TransactionConflictException;
+import org.payvyne.transaction.exception.TransactionIngestRejectedException;
 import org.payvyne.transaction.exception.TransactionNotFoundException;
+import org.payvyne.transaction.exception.TransactionPreconditionFailedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -26,10 +34,48 @@ public class TransactionControllerErrorHandlerAdvice {
         return ex.getMessage();
     }
 
+    @ResponseBody
+    @ExceptionHandler(JsonProcessingException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    String malformedJson(JsonProcessingException ex) {
+        return ex.getLocation() == null ? ex.getOriginalMessage() : String.format("Malformed JSON at line %d: %s", ex.getLocation().getLineNr(), ex.getOriginalMessage());
+    }
+
     @ResponseBody
     @ExceptionHandler(TransactionNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     String transactionNotFoundException(TransactionNotFoundException ex) {
         return ex.getMessage();
     }
+
+    @ResponseBody
+    @ExceptionHandler(TransactionConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    String transactionConflictException(TransactionConflictException ex) {
+        return ex.getMessage();
+    }
+
+    @ResponseBody
+    @ExceptionHandler(TransactionPreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    String transactionPreconditionFailedException(TransactionPreconditionFailedException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(TransactionIngestRejectedException.class)
+    ResponseEntity<String> transactionIngestRejectedException(TransactionIngestRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(ex.getMessage());
+    }
+
+    @ExceptionHandler(TransactionChangeStreamFullException.class)
+    ResponseEntity<String> transactionChangeStreamFullException(TransactionChangeStreamFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").body(ex.getMessage());
+    }
+
+    @ResponseBody
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    String optimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        return "Transaction was changed concurrently, retry the update";
+    }
 }
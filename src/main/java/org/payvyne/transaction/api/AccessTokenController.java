@@ -0,0 +1,31 @@
+package org.payvyne.transaction.api;
+
+import lombok.RequiredArgsConstructor;
+import org.payvyne.transaction.model.AccessTokenDto;
+import org.payvyne.transaction.security.AccessTokenService;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1")
+public class AccessTokenController {
+
+    private final AccessTokenService accessTokenService;
+
+    /**
+     * Exchanges Basic credentials for a bearer token, so later requests skip the password check. A token cannot be
+     * used to obtain another one, otherwise a leaked token would never expire.
+     */
+    @PostMapping("/token")
+    public AccessTokenDto issueToken(Authentication authentication) {
+        if (authentication instanceof PreAuthenticatedAuthenticationToken) {
+            throw new AccessDeniedException("Tokens are only issued for Basic credentials");
+        }
+        return accessTokenService.issue(authentication);
+    }
+}
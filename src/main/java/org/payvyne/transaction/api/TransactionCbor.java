@@ -0,0 +1,260 @@
+package org.payvyne.transaction.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.TransactionSummary;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The compact binary encoding of transactions served for {@code application/cbor}. A transaction is a CBOR array
+ * rather than a map, so no field name is repeated per row; amounts are integers in hundredths and dates are UTC
+ * epoch values, so neither is formatted nor parsed as text:
+ * <pre>
+ * [transactionId, transactionDate, transactionStatus, currencyCode, amount, createdDate, modifiedDate, comment, version]
+ * </pre>
+ * transactionDate is in epoch seconds, createdDate and modifiedDate in epoch milliseconds. A summary has the same
+ * positions, with null for the fields it does not hold. A create request has this layout too, of which only
+ * transactionDate, currencyCode, amount and comment are read, so an export can be ingested again as it is.
+ */
+public final class TransactionCbor {
+
+    public static final String INVALID_REQUEST = "A transaction must be a CBOR array";
+    public static final String INVALID_AMOUNT = "Invalid amount, expected an integer of at most 10 digits in hundredths";
+    public static final String INVALID_TRANSACTION_DATE = "Invalid transactionDate, expected epoch seconds";
+
+    static final CBORFactory FACTORY = new CBORFactory();
+
+    private static final int FIELDS = 9;
+    private static final int TRANSACTION_DATE = 1;
+    private static final int CURRENCY_CODE = 3;
+    private static final int AMOUNT = 4;
+    private static final int COMMENT = 7;
+
+    private static final int SCALE = 2;
+    private static final long MAX_AMOUNT = 9_999_999_999L;
+    private static final long MIN_TRANSACTION_DATE = LocalDateTime.of(0, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_TRANSACTION_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+
+    private TransactionCbor() {
+    }
+
+    /**
+     * Serializers writing {@link Transaction} and {@link TransactionSummary} in this layout, for the CBOR mapper.
+     */
+    public static Module module() {
+        return new SimpleModule("TransactionCbor")
+                .addSerializer(Transaction.class, new TransactionSerializer())
+                .addSerializer(TransactionSummary.class, new TransactionSummarySerializer());
+    }
+
+    public static void write(JsonGenerator generator, Transaction transaction) throws IOException {
+        generator.writeStartArray(transaction, FIELDS);
+        writeLong(generator, transaction.getTransactionId());
+        writeEpochSecond(generator, transaction.getTransactionDate());
+        writeStatus(generator, transaction.getTransactionStatus());
+        generator.writeString(transaction.getCurrencyCode());
+        writeAmount(generator, transaction.getAmount());
+        writeEpochMilli(generator, transaction.getCreatedDate());
+        writeEpochMilli(generator, transaction.getModifiedDate());
+        generator.writeString(transaction.getComment());
+        writeLong(generator, transaction.getVersion());
+        generator.writeEndArray();
+    }
+
+    public static void write(JsonGenerator generator, TransactionSummary summary) throws IOException {
+        generator.writeStartArray(summary, FIELDS);
+        writeLong(generator, summary.transactionId());
+        writeEpochSecond(generator, summary.transactionDate());
+        writeStatus(generator, summary.transactionStatus());
+        generator.writeString(summary.currencyCode());
+        writeAmount(generator, summary.amount());
+        generator.writeNull();
+        generator.writeNull();
+        generator.writeString(summary.comment());
+        generator.writeNull();
+        generator.writeEndArray();
+    }
+
+    /**
+     * Reads the array the parser is positioned on (or the next one, when positioned before it) into
+     * {@code transaction}, leaving the parser on its end; the counterpart of
+     * {@link TransactionRequestParser#read(JsonParser, Transaction)}.
+     *
+     * @return null when the request is valid, otherwise why it is not
+     */
+    public static String read(JsonParser parser, Transaction transaction) throws IOException {
+        // only a single request starts before its first token: a batch row is read where it stands, so that a
+        // malformed row is skipped on its own rather than taking the next row with it
+        final var start = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+        if (start != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return INVALID_REQUEST;
+        }
+
+        String error = null;
+        int index = 0;
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken(), index++) {
+            if (token == null) {
+                return INVALID_REQUEST;
+            }
+            final var fieldError = switch (index) {
+                case TRANSACTION_DATE -> readTransactionDate(parser, token, transaction);
+                case CURRENCY_CODE -> readCurrencyCode(parser, token, transaction);
+                case AMOUNT -> readAmount(parser, token, transaction);
+                case COMMENT -> readComment(parser, token, transaction);
+                default -> {
+                    parser.skipChildren();
+                    yield null;
+                }
+            };
+            if (error == null) {
+                error = fieldError;
+            }
+        }
+
+        if (error != null) {
+            return error;
+        }
+        if (transaction.getAmount() == null || transaction.getCurrencyCode() == null || transaction.getTransactionDate() == null) {
+            return TransactionRequestParser.MISSING_FIELDS;
+        }
+        transaction.setTransactionStatus(TransactionStatus.CREATED);
+        return null;
+    }
+
+    private static String readTransactionDate(JsonParser parser, JsonToken token, Transaction transaction) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!isLong(parser, token)) {
+            parser.skipChildren();
+            return INVALID_TRANSACTION_DATE;
+        }
+        final var epochSecond = parser.getLongValue();
+        if (epochSecond < MIN_TRANSACTION_DATE || epochSecond > MAX_TRANSACTION_DATE) {
+            return INVALID_TRANSACTION_DATE;
+        }
+        transaction.setTransactionDate(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC));
+        return null;
+    }
+
+    private static String readCurrencyCode(JsonParser parser, JsonToken token, Transaction transaction) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return TransactionRequestParser.INVALID_CURRENCY_CODE;
+        }
+        final var currencyCode = TransactionRequestParser.currencyCode(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        if (currencyCode == null) {
+            return TransactionRequestParser.INVALID_CURRENCY_CODE;
+        }
+        transaction.setCurrencyCode(currencyCode);
+        return null;
+    }
+
+    private static String readAmount(JsonParser parser, JsonToken token, Transaction transaction) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!isLong(parser, token)) {
+            parser.skipChildren();
+            return INVALID_AMOUNT;
+        }
+        final var hundredths = parser.getLongValue();
+        if (hundredths < -MAX_AMOUNT || hundredths > MAX_AMOUNT) {
+            return INVALID_AMOUNT;
+        }
+        transaction.setAmount(BigDecimal.valueOf(hundredths, SCALE));
+        return null;
+    }
+
+    private static String readComment(JsonParser parser, JsonToken token, Transaction transaction) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return TransactionRequestParser.INVALID_COMMENT;
+        }
+        transaction.setComment(parser.getText());
+        return null;
+    }
+
+    private static boolean isLong(JsonParser parser, JsonToken token) throws IOException {
+        return token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER;
+    }
+
+    private static void writeLong(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    private static void writeStatus(JsonGenerator generator, TransactionStatus status) throws IOException {
+        generator.writeString(status == null ? null : status.name());
+    }
+
+    private static void writeAmount(JsonGenerator generator, BigDecimal amount) throws IOException {
+        if (amount == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(amount.movePointRight(SCALE).longValueExact());
+        }
+    }
+
+    private static void writeEpochSecond(JsonGenerator generator, LocalDateTime dateTime) throws IOException {
+        if (dateTime == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(dateTime.toEpochSecond(ZoneOffset.UTC));
+        }
+    }
+
+    private static void writeEpochMilli(JsonGenerator generator, LocalDateTime dateTime) throws IOException {
+        if (dateTime == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(dateTime.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    private static final class TransactionSerializer extends StdSerializer<Transaction> {
+
+        private TransactionSerializer() {
+            super(Transaction.class);
+        }
+
+        @Override
+        public void serialize(Transaction transaction, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            write(generator, transaction);
+        }
+    }
+
+    private static final class TransactionSummarySerializer extends StdSerializer<TransactionSummary> {
+
+        private TransactionSummarySerializer() {
+            super(TransactionSummary.class);
+        }
+
+        @Override
+        public void serialize(TransactionSummary summary, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            write(generator, summary);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.payvyne.transaction.api;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.payvyne.transaction.exception.TransactionChangeStreamFullException;
+import org.payvyne.transaction.model.TransactionChangeDto;
+import org.payvyne.transaction.service.TransactionChangeSink;
+import org.payvyne.transaction.service.TransactionOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams transaction changes to {@code /transaction/changes} subscribers as server-sent events, each with its
+ * offset as event id. Each subscriber has its own sender thread and a bounded queue: publishing only enqueues, so a
+ * slow client never holds up the relay or the other subscribers. A subscriber is registered before it catches up
+ * from the outbox table, so whatever is published meanwhile waits in its queue; changes at or below the offset it
+ * has reached are skipped, so none is missed or sent twice. A subscriber whose queue fills up is dropped and resumes
+ * with Last-Event-ID. Sender threads are capped at {@code max-subscribers}; beyond that new subscribers are turned
+ * away until a stream ends.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionChangeStream implements TransactionChangeSink {
+
+    static final String EVENT_NAME = "transaction-change";
+    private static final int CATCH_UP_PAGE_SIZE = 500;
+
+    private final TransactionOutbox transactionOutbox;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transaction.changes.stream-timeout:1800000}")
+    private long streamTimeout;
+
+    @Value("${transaction.changes.subscriber-queue-capacity:100}")
+    private int subscriberQueueCapacity;
+
+    @Value("${transaction.changes.max-subscribers:200}")
+    private int maxSubscribers;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private ThreadPoolExecutor senders;
+
+    @PostConstruct
+    void start() {
+        // no queue: a stream either gets a thread right away or is rejected, and idle threads go away after a minute
+        senders = new ThreadPoolExecutor(0, maxSubscribers, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            final var thread = new Thread(runnable, "transaction-change-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("transaction.changes.subscribers", subscribers, List::size)
+                .description("Open transaction change streams")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * @param offset the offset of the last change the subscriber has seen, or null to start with the next change
+     * @throws TransactionChangeStreamFullException when {@code max-subscribers} streams are already open
+     */
+    public SseEmitter subscribe(Long offset) {
+        final var subscriber = new Subscriber(new SseEmitter(streamTimeout), offset == null ? transactionOutbox.findLastOffset() : offset, new ArrayBlockingQueue<>(subscriberQueueCapacity));
+        try {
+            // opens the stream right away, even when there is nothing to catch up on
+            subscriber.emitter.send(SseEmitter.event().comment("changes after offset " + subscriber.offset));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(ex -> remove(subscriber));
+        subscribers.add(subscriber);
+        try {
+            senders.execute(() -> stream(subscriber));
+        } catch (RejectedExecutionException ex) {
+            remove(subscriber);
+            throw new TransactionChangeStreamFullException(String.format("Already streaming transaction changes to %d subscribers, retry later", maxSubscribers));
+        }
+        return subscriber.emitter;
+    }
+
+    @Override
+    public void publish(List<TransactionChangeDto> changes) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.pending.offer(changes)) {
+                log.warn(">> Dropped transaction change stream at offset [{}]: more than [{}] batches behind", subscriber.offset, subscriberQueueCapacity);
+                remove(subscriber);
+                subscriber.emitter.completeWithError(new IllegalStateException("Transaction change stream fell behind, resume with Last-Event-ID"));
+            }
+        }
+    }
+
+    /**
+     * Pages through the backlog, then sends what is published until the subscriber goes away.
+     */
+    private void stream(Subscriber subscriber) {
+        try {
+            while (subscriber.send(transactionOutbox.findAfter(subscriber.offset, CATCH_UP_PAGE_SIZE)) == CATCH_UP_PAGE_SIZE) {
+                // keep paging
+            }
+            while (!subscriber.closed) {
+                final var changes = subscriber.pending.poll(1, TimeUnit.SECONDS);
+                if (changes != null) {
+                    subscriber.send(changes);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException ex) {
+            remove(subscriber);
+            subscriber.emitter.completeWithError(ex);
+        } catch (RuntimeException ex) {
+            log.error(">> Failed to stream transaction changes from offset [{}]", subscriber.offset, ex);
+            remove(subscriber);
+            subscriber.emitter.completeWithError(ex);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<List<TransactionChangeDto>> pending;
+        // only read and written by the subscriber's sender thread, apart from logging
+        private volatile long offset;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, long offset, BlockingQueue<List<TransactionChangeDto>> pending) {
+            this.emitter = emitter;
+            this.offset = offset;
+            this.pending = pending;
+        }
+
+        /**
+         * Sends the changes after the subscriber's offset.
+         *
+         * @return the number of changes given, sent or not
+         */
+        int send(List<TransactionChangeDto> changes) throws IOException {
+            for (var change : changes) {
+                if (change.offset() > offset) {
+                    emitter.send(SseEmitter.event().id(String.valueOf(change.offset())).name(EVENT_NAME).data(change, MediaType.APPLICATION_JSON));
+                    offset = change.offset();
+                }
+            }
+            return changes.size();
+        }
+    }
+}
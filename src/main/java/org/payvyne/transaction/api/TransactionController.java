@@ -1,64 +1,214 @@
 package org.payvyne.transaction.api;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.payvyne.transaction.domain.Transaction;
 import org.payvyne.transaction.domain.TransactionStatus;
 import org.payvyne.transaction.exception.TransactionNotFoundException;
-import org.payvyne.transaction.model.TransactionRequestDto;
+import org.payvyne.transaction.exception.TransactionPreconditionFailedException;
+import org.payvyne.transaction.model.CursorPage;
+import org.payvyne.transaction.model.TransactionBatchResultDto;
+import org.payvyne.transaction.model.TransactionDailyTotalDto;
+import org.payvyne.transaction.model.TransactionRetentionResultDto;
+import org.payvyne.transaction.model.TransactionSearchCriteria;
+import org.payvyne.transaction.model.TransactionStatusUpdateDto;
+import org.payvyne.transaction.model.TransactionSummary;
 import org.payvyne.transaction.model.TransactionUpdateDto;
+import org.payvyne.transaction.service.TransactionIdempotencyKeys;
+import org.payvyne.transaction.service.TransactionIngestQueue;
 import org.payvyne.transaction.service.TransactionService;
+import org.payvyne.transaction.service.TransactionStatisticsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Currency;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1")
 public class TransactionController {
 
+    private static final int MAX_PAGE_SIZE = 2000;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final TransactionService transactionService;
+    private final TransactionStatisticsService transactionStatisticsService;
+    private final ObjectMapper objectMapper;
+    private final Optional<TransactionIngestQueue> transactionIngestQueue;
+    private final TransactionChangeStream transactionChangeStream;
+
+    @Value("${transaction.batch.max-size:50000}")
+    private int maxBatchSize;
 
+    /**
+     * List and search responses hold {@link TransactionSummary} rows; {@code fields=amount,currencyCode} narrows them
+     * to the given fields, besides transactionId and transactionDate which are always returned.
+     */
     @GetMapping("/transaction")
-    public Page<Transaction> findAllTransactions(@PageableDefault(size = 25, value = 0, sort = "transactionDate", direction = Sort.Direction.DESC) Pageable pageable) {
-        return transactionService.find(pageable);
+    public Page<TransactionSummary> findAllTransactions(@RequestParam(required = false) Set<String> fields, @PageableDefault(size = 25, value = 0, sort = "transactionDate", direction = Sort.Direction.DESC) Pageable pageable) {
+        return transactionService.find(fields, pageable);
+    }
+
+    @GetMapping(value = "/transaction", params = "cursor")
+    public CursorPage<TransactionSummary> findAllTransactions(@RequestParam(required = false) Set<String> fields, @RequestParam String cursor, @RequestParam(defaultValue = "25") int size) {
+        validatePageSize(size);
+        return transactionService.find(fields, cursor, size);
+    }
+
+    /**
+     * The body has the shape of {@link org.payvyne.transaction.model.TransactionRequestDto} but is read by
+     * {@link TransactionRequestParser}, straight into the entity. With {@code transaction.ingest.mode=async} the
+     * transaction is queued for a background write and 202 is returned with its id instead of 201.
+     * <p>
+     * A retry sent with the same Idempotency-Key header gets the id of the transaction the first request created
+     * instead of creating another one; reusing a key for a different transaction is a 409.
+     */
+    @PostMapping(value = "/transaction", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Long> createTransaction(InputStream body, @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) throws IOException {
+        if (idempotencyKey != null) {
+            TransactionIdempotencyKeys.validate(idempotencyKey);
+        }
+        try (var parser = objectMapper.getFactory().createParser(body)) {
+            final var transaction = new Transaction();
+            final var error = TransactionRequestParser.read(parser, transaction);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            if (transactionIngestQueue.isPresent()) {
+                return ResponseEntity.accepted().body(transactionIngestQueue.get().enqueue(transaction, idempotencyKey));
+            }
+            if (idempotencyKey != null) {
+                return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.save(transaction, idempotencyKey));
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.save(transaction).getTransactionId());
+        }
     }
 
-    @ResponseStatus(HttpStatus.CREATED)
-    @PostMapping("/transaction")
-    public Long createTransaction(@RequestBody TransactionRequestDto transactionRequestDto) {
-        Currency.getInstance(transactionRequestDto.currencyCode());
+    @PostMapping(value = "/transaction/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<TransactionBatchResultDto>> createTransactions(InputStream body) throws IOException {
+        try (var parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("A batch must be a JSON array of transactions");
+            }
+            return createTransactionBatch(parser, JsonToken.END_ARRAY, TransactionRequestParser::read);
+        }
+    }
+
+    @PostMapping(value = "/transaction/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<TransactionBatchResultDto>> createTransactionsFromNdjson(InputStream body) throws IOException {
+        try (var parser = objectMapper.getFactory().createParser(body)) {
+            return createTransactionBatch(parser, null, TransactionRequestParser::read);
+        }
+    }
 
-        return transactionService.save(Transaction.builder()
-                        .transactionStatus(TransactionStatus.CREATED)
-                        .transactionDate(LocalDateTime.parse(transactionRequestDto.transactionDate(), DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")))
-                        .amount(transactionRequestDto.amount())
-                        .currencyCode(transactionRequestDto.currencyCode())
-                        .comment(transactionRequestDto.comment())
-                        .build())
-                .getTransactionId();
+    /**
+     * The body is a CBOR array of transactions in the {@link TransactionCbor} layout, e.g. a CBOR export.
+     */
+    @PostMapping(value = "/transaction/batch", consumes = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<List<TransactionBatchResultDto>> createTransactionsFromCbor(InputStream body) throws IOException {
+        try (var parser = TransactionCbor.FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("A batch must be a CBOR array of transactions");
+            }
+            return createTransactionBatch(parser, JsonToken.END_ARRAY, TransactionCbor::read);
+        }
     }
 
+    /**
+     * The ETag is the transaction's version, which every write increments. With If-None-Match only the version is
+     * looked up, and 304 is returned without loading or serializing the transaction when it still matches.
+     */
     @GetMapping("/transaction/{id}")
-    public Transaction getTransaction(@PathVariable Long id) {
-        return transactionService.find(id).orElseThrow(() -> new TransactionNotFoundException("Transaction not found"));
+    public ResponseEntity<Transaction> getTransaction(@PathVariable Long id, @RequestHeader HttpHeaders headers) {
+        final var ifNoneMatch = headers.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            final var eTag = eTag(transactionService.findVersion(id).orElseThrow(() -> new TransactionNotFoundException("Transaction not found")));
+            if (ifNoneMatch.stream().anyMatch(tag -> tag.equals("*") || weakValue(tag).equals(eTag))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        final var transaction = transactionService.find(id).orElseThrow(() -> new TransactionNotFoundException("Transaction not found"));
+        return ResponseEntity.ok().eTag(eTag(transaction.getVersion())).body(transaction);
     }
 
+    /**
+     * Query parameters fromDate and toDate are mandatory; transactionStatus, currencyCode, minAmount, maxAmount and
+     * commentPrefix optionally narrow the search, see {@link TransactionSearchCriteria}.
+     */
     @GetMapping("/transaction/search")
-    public Page<Transaction> getTransactionBetweenDates(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate, @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate, @PageableDefault(size = 25, value = 0, sort = "transactionDate", direction = Sort.Direction.DESC) Pageable pageable) {
-        if (fromDate == null || toDate == null || (toDate.isBefore(fromDate))) {
-            String.format("Invalid from date %s and to date %s", fromDate.format(DateTimeFormatter.ISO_DATE), toDate.format(DateTimeFormatter.ISO_DATE));
-            throw new IllegalArgumentException("Invalid from date");
+    public Page<TransactionSummary> getTransactionBetweenDates(TransactionSearchCriteria criteria, @RequestParam(required = false) Set<String> fields, @PageableDefault(size = 25, value = 0, sort = "transactionDate", direction = Sort.Direction.DESC) Pageable pageable) {
+        validateSearchCriteria(criteria);
+        return transactionService.find(criteria, fields, pageable);
+    }
+
+    @GetMapping(value = "/transaction/search", params = "cursor")
+    public CursorPage<TransactionSummary> getTransactionBetweenDates(TransactionSearchCriteria criteria, @RequestParam(required = false) Set<String> fields, @RequestParam String cursor, @RequestParam(defaultValue = "25") int size) {
+        validateSearchCriteria(criteria);
+        validatePageSize(size);
+        return transactionService.find(criteria, fields, cursor, size);
+    }
+
+    /**
+     * Server-sent events of transaction creations, status changes and deletions, see
+     * {@link org.payvyne.transaction.model.TransactionChangeDto}. The stream resumes after the change whose offset
+     * is given as {@code offset} or, when reconnecting, as Last-Event-ID; without either it starts with the next change.
+     */
+    @GetMapping(value = "/transaction/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTransactionChanges(@RequestParam(required = false) Long offset, @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        final var from = offset != null ? offset : lastEventId;
+        if (from != null && from < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        return transactionChangeStream.subscribe(from);
+    }
+
+    @GetMapping("/transaction/stats")
+    public List<TransactionDailyTotalDto> getDailyTotals(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate, @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate, @RequestParam(required = false) String currencyCode) {
+        validateDateRange(fromDate, toDate);
+        return transactionStatisticsService.find(fromDate, toDate, currencyCode);
+    }
+
+    /**
+     * Streams every transaction between the dates as {@code format=ndjson}, {@code csv} or {@code cbor}, the latter
+     * in the {@link TransactionCbor} layout that {@code POST /transaction/batch} reads back.
+     */
+    @GetMapping("/transaction/export")
+    public void exportTransactionsBetweenDates(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate, @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate, @RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        validateDateRange(fromDate, toDate);
+        final var exportFormat = TransactionExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, String.format("attachment; filename=\"transactions-%s-%s.%s\"", fromDate, toDate, exportFormat.fileExtension()));
+        try (var writer = TransactionExportWriter.of(exportFormat, response.getOutputStream(), objectMapper)) {
+            transactionService.export(fromDate, toDate, transaction -> {
+                try {
+                    writer.write(transaction);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
         }
-        return transactionService.find(fromDate, toDate, pageable);
     }
 
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -67,15 +217,125 @@ public class TransactionController {
         transactionService.delete(id);
     }
 
+    @DeleteMapping("/transaction/retention")
+    public TransactionRetentionResultDto deleteTransactionsBetweenDates(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate, @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate, @RequestParam(required = false) TransactionStatus transactionStatus) {
+        validateDateRange(fromDate, toDate);
+        return transactionService.deleteBetween(fromDate, toDate, transactionStatus);
+    }
+
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/transaction")
     public void deleteTransactions() {
         transactionService.deleteAll();
     }
 
+    /**
+     * With If-Match set to the ETag last read, the update is only applied if nobody changed the transaction since,
+     * otherwise 412 is returned.
+     */
     @ResponseStatus(HttpStatus.OK)
     @PutMapping("/transaction/{id}")
-    public void updateTransaction(@PathVariable Long id, @RequestBody TransactionUpdateDto transactionUpdateDto) {
-        transactionService.update(id, transactionUpdateDto);
+    public void updateTransaction(@PathVariable Long id, @RequestBody TransactionUpdateDto transactionUpdateDto, @RequestHeader HttpHeaders headers) {
+        if (!transactionService.update(id, transactionUpdateDto, expectedVersion(headers.getIfMatch()))) {
+            throw new TransactionNotFoundException("Transaction not found");
+        }
+    }
+
+    @PatchMapping("/transaction/status")
+    public int updateTransactionStatuses(@RequestBody TransactionStatusUpdateDto transactionStatusUpdateDto) {
+        return transactionService.updateStatuses(transactionStatusUpdateDto);
+    }
+
+    /**
+     * Validates every row before anything is written, so a batch is either stored completely (201 with the
+     * id of each row) or rejected completely (400 with the error of each failing row).
+     *
+     * @param end    the token closing the batch, or null when the batch runs to the end of the body
+     * @param reader reads one row of the batch's format
+     */
+    private ResponseEntity<List<TransactionBatchResultDto>> createTransactionBatch(JsonParser parser, JsonToken end, TransactionReader reader) throws IOException {
+        final var transactions = new ArrayList<Transaction>();
+        final var errors = new ArrayList<TransactionBatchResultDto>();
+        for (JsonToken token = parser.nextToken(); token != end; token = parser.nextToken()) {
+            if (token == null) {
+                throw new IllegalArgumentException("Unexpected end of batch");
+            }
+            final var row = transactions.size() + errors.size();
+            if (row == maxBatchSize) {
+                throw new IllegalArgumentException(String.format("A batch must contain between 1 and %d transactions", maxBatchSize));
+            }
+            final var transaction = new Transaction();
+            final var error = reader.read(parser, transaction);
+            if (error == null) {
+                transactions.add(transaction);
+            } else {
+                errors.add(TransactionBatchResultDto.rejected(row, error));
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(errors);
+        }
+        if (transactions.isEmpty()) {
+            throw new IllegalArgumentException(String.format("A batch must contain between 1 and %d transactions", maxBatchSize));
+        }
+
+        final var saved = transactionService.saveAll(transactions);
+        final var results = new ArrayList<TransactionBatchResultDto>(saved.size());
+        for (int row = 0; row < saved.size(); row++) {
+            results.add(TransactionBatchResultDto.created(row, saved.get(row).getTransactionId()));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(results);
+    }
+
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static String weakValue(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    /**
+     * @return the version required by If-Match, or null when any version will do
+     */
+    private static Long expectedVersion(List<String> ifMatch) {
+        if (ifMatch.isEmpty() || ifMatch.contains("*")) {
+            return null;
+        }
+        if (ifMatch.size() > 1) {
+            throw new IllegalArgumentException("If-Match must hold a single ETag");
+        }
+        final var eTag = ifMatch.get(0);
+        try {
+            // If-Match uses the strong comparison, so a weak ETag never matches
+            return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException ex) {
+            throw new TransactionPreconditionFailedException("Transaction has changed, read it again before updating");
+        }
+    }
+
+    private static void validateDateRange(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate == null || toDate == null || (toDate.isBefore(fromDate))) {
+            throw new IllegalArgumentException("Invalid from date");
+        }
+    }
+
+    private static void validateSearchCriteria(TransactionSearchCriteria criteria) {
+        validateDateRange(criteria.fromDate(), criteria.toDate());
+        if (criteria.minAmount() != null && criteria.maxAmount() != null && criteria.maxAmount().compareTo(criteria.minAmount()) < 0) {
+            throw new IllegalArgumentException("Invalid amount range");
+        }
+    }
+
+    private static void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(String.format("Page size must be between 1 and %d", MAX_PAGE_SIZE));
+        }
+    }
+
+    @FunctionalInterface
+    private interface TransactionReader {
+        String read(JsonParser parser, Transaction transaction) throws IOException;
     }
-}
\ No newline at end of file
+}
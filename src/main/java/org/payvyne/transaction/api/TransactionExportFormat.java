@@ -0,0 +1,25 @@
+package org.payvyne.transaction.api;
+
+import org.springframework.http.MediaType;
+
+public enum TransactionExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON_VALUE, "ndjson"),
+    CSV("text/csv", "csv"),
+    CBOR(MediaType.APPLICATION_CBOR_VALUE, "cbor");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    TransactionExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+}
@@ -0,0 +1,128 @@
+package org.payvyne.transaction.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.payvyne.transaction.domain.Transaction;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes transactions one at a time to an output stream, holding nothing but the current row.
+ */
+abstract class TransactionExportWriter implements Closeable {
+
+    static TransactionExportWriter of(TransactionExportFormat format, OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(outputStream, objectMapper);
+            case CSV -> new CsvWriter(outputStream);
+            case CBOR -> new CborWriter(outputStream);
+        };
+    }
+
+    abstract void write(Transaction transaction) throws IOException;
+
+    private static final class NdjsonWriter extends TransactionExportWriter {
+        private final SequenceWriter sequenceWriter;
+
+        private NdjsonWriter(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            sequenceWriter = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream);
+        }
+
+        @Override
+        void write(Transaction transaction) throws IOException {
+            sequenceWriter.write(transaction);
+        }
+
+        @Override
+        public void close() throws IOException {
+            sequenceWriter.close();
+        }
+    }
+
+    private static final class CsvWriter extends TransactionExportWriter {
+        private static final String HEADER = "transactionId,transactionDate,transactionStatus,currencyCode,amount,createdDate,modifiedDate,comment";
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final Writer writer;
+
+        private CsvWriter(OutputStream outputStream) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        void write(Transaction transaction) throws IOException {
+            writer.write(String.valueOf(transaction.getTransactionId()));
+            writer.write(',');
+            writer.write(String.valueOf(transaction.getTransactionDate()));
+            writer.write(',');
+            writer.write(transaction.getTransactionStatus().name());
+            writer.write(',');
+            writer.write(transaction.getCurrencyCode());
+            writer.write(',');
+            writer.write(transaction.getAmount().toPlainString());
+            writer.write(',');
+            writer.write(transaction.getCreatedDate() == null ? "" : transaction.getCreatedDate().toString());
+            writer.write(',');
+            writer.write(transaction.getModifiedDate() == null ? "" : transaction.getModifiedDate().toString());
+            writer.write(',');
+            writeEscaped(transaction.getComment());
+            writer.write('\n');
+        }
+
+        /**
+         * Quotes the value when it holds a separator, and prefixes it with {@code '} when it starts like a formula
+         * so a spreadsheet opening the export shows it as text rather than evaluating it.
+         */
+        private void writeEscaped(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes one indefinite-length CBOR array of transactions in the {@link TransactionCbor} layout.
+     */
+    private static final class CborWriter extends TransactionExportWriter {
+        private final JsonGenerator generator;
+
+        private CborWriter(OutputStream outputStream) throws IOException {
+            generator = TransactionCbor.FACTORY.createGenerator(outputStream);
+            generator.writeStartArray();
+        }
+
+        @Override
+        void write(Transaction transaction) throws IOException {
+            TransactionCbor.write(generator, transaction);
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeEndArray();
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.payvyne.transaction.api;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.domain.TransactionStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.util.Currency;
+
+/**
+ * Reads a transaction creation request straight from the JSON token stream into a new {@link Transaction}.
+ * <p>
+ * This is the hot path of ingestion, so nothing is allocated besides the entity and its values: the date is
+ * parsed from the parser's character buffer, currency codes resolve to shared instances from a lookup table
+ * and invalid input is reported as a returned message rather than a thrown exception.
+ */
+public final class TransactionRequestParser {
+
+    public static final String MISSING_FIELDS = "amount, currencyCode and transactionDate are mandatory";
+    public static final String INVALID_REQUEST = "A transaction must be a JSON object";
+    public static final String INVALID_AMOUNT = "Invalid amount, at most 8 digits and 2 decimals";
+    public static final String INVALID_CURRENCY_CODE = "Invalid currencyCode";
+    public static final String INVALID_TRANSACTION_DATE = "Invalid transactionDate, expected yyyy-MM-dd'T'HH:mm:ss";
+    public static final String INVALID_COMMENT = "Invalid comment";
+
+    private static final int MAX_INTEGER_DIGITS = 8;
+    private static final int MAX_SCALE = 2;
+    private static final String[] CURRENCY_CODES = new String[26 * 26 * 26];
+
+    static {
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            final var code = currency.getCurrencyCode();
+            final var index = currencyIndex(code.toCharArray(), 0, code.length());
+            if (index >= 0) {
+                CURRENCY_CODES[index] = code;
+            }
+        }
+    }
+
+    private TransactionRequestParser() {
+    }
+
+    /**
+     * Reads the object the parser is positioned on (or the next one, when positioned before it) into
+     * {@code transaction}, leaving the parser on its closing brace.
+     *
+     * @return null when the request is valid, otherwise why it is not
+     */
+    public static String read(JsonParser parser, Transaction transaction) throws IOException {
+        // only a single request starts before its first token: a batch row is read where it stands, so that a
+        // malformed row is skipped on its own rather than taking the next row with it
+        final var start = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+        if (start != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return INVALID_REQUEST;
+        }
+
+        String error = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final var field = parser.currentName();
+            final var token = parser.nextToken();
+            final var fieldError = switch (field) {
+                case "amount" -> readAmount(parser, token, transaction);
+                case "currencyCode" -> readCurrencyCode(parser, token, transaction);
+                case "transactionDate" -> readTransactionDate(parser, token, transaction);
+                case "comment" -> readComment(parser, token, transaction);
+                default -> {
+                    parser.skipChildren();
+                    yield null;
+                }
+            };
+            if (error == null) {
+                error = fieldError;
+            }
+        }
+
+        if (error != null) {
+            return error;
+        }
+        if (transaction.getAmount() == null || transaction.getCurrencyCode() == null || transaction.getTransactionDate() == null) {
+            return MISSING_FIELDS;
+        }
+        transaction.setTransactionStatus(TransactionStatus.CREATED);
+        return null;
+    }
+
+    private static String readAmount(JsonParser parser, JsonToken token, Transaction transaction) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+            parser.skipChildren();
+            return INVALID_AMOUNT;
+        }
+        final BigDecimal amount = parser.getDecimalValue();
+        if (amount.scale() > MAX_SCALE || amount.precision() - amount.scale() > MAX_INTEGER_DIGITS) {
+            return INVALID_AMOUNT;
+        }
+        transaction.setAmount(amount);
+        return null;
+    }
+
+    private static String readCurrencyCode(JsonParser parser, JsonToken token, Transaction transaction) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return INVALID_CURRENCY_CODE;
+        }
+        final var currencyCode = currencyCode(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        if (currencyCode == null) {
+            return INVALID_CURRENCY_CODE;
+        }
+        transaction.setCurrencyCode(currencyCode);
+        return null;
+    }
+
+    private static String readTransactionDate(JsonParser parser, JsonToken token, Transaction transaction) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return INVALID_TRANSACTION_DATE;
+        }
+        final var transactionDate = parseDateTime(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        if (transactionDate == null) {
+            return INVALID_TRANSACTION_DATE;
+        }
+        transaction.setTransactionDate(transactionDate);
+        return null;
+    }
+
+    private static String readComment(JsonParser parser, JsonToken token, Transaction transaction) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return INVALID_COMMENT;
+        }
+        transaction.setComment(parser.getText());
+        return null;
+    }
+
+    /**
+     * @return the shared instance of the ISO 4217 code in the given characters, or null when it is not one
+     */
+    static String currencyCode(char[] chars, int offset, int length) {
+        final var index = currencyIndex(chars, offset, length);
+        return index < 0 ? null : CURRENCY_CODES[index];
+    }
+
+    private static int currencyIndex(char[] chars, int offset, int length) {
+        if (length != 3) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = offset; i < offset + 3; i++) {
+            final var c = chars[i];
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            index = index * 26 + (c - 'A');
+        }
+        return index;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd'T'HH:mm:ss}, returning null rather than throwing when the text is not a valid date.
+     */
+    static LocalDateTime parseDateTime(char[] chars, int offset, int length) {
+        if (length != 19 || chars[offset + 4] != '-' || chars[offset + 7] != '-' || chars[offset + 10] != 'T' || chars[offset + 13] != ':' || chars[offset + 16] != ':') {
+            return null;
+        }
+        final var year = digits(chars, offset, 4);
+        final var month = digits(chars, offset + 5, 2);
+        final var day = digits(chars, offset + 8, 2);
+        final var hour = digits(chars, offset + 11, 2);
+        final var minute = digits(chars, offset + 14, 2);
+        final var second = digits(chars, offset + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year)) || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            final var digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
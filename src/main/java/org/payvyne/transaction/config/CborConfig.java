@@ -0,0 +1,24 @@
+package org.payvyne.transaction.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.payvyne.transaction.api.TransactionCbor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class CborConfig {
+
+    /**
+     * Answers {@code Accept: application/cbor} with transactions and summaries in the {@link TransactionCbor} layout,
+     * in place of the CBOR converter Spring MVC would register by default. Other payloads keep the settings of the
+     * JSON mapper.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory())
+                .postConfigurer(objectMapper -> objectMapper.registerModule(TransactionCbor.module()))
+                .build());
+    }
+}
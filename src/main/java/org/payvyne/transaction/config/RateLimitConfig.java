@@ -0,0 +1,86 @@
+package org.payvyne.transaction.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.payvyne.transaction.ratelimit.AdaptiveConcurrencyLimit;
+import org.payvyne.transaction.ratelimit.RateLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Puts {@link RateLimitFilter} in front of the transaction endpoints, right after the Spring Security filter chain,
+ * when {@code transaction.rate-limit.enabled=true}. The concurrency limit never goes below the connection pool size,
+ * so it only sheds requests that would otherwise queue for a connection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transaction.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Value("${transaction.rate-limit.rate:100}")
+    private double rate;
+
+    @Value("${transaction.rate-limit.burst:200}")
+    private int burst;
+
+    @Value("${transaction.rate-limit.search.rate:20}")
+    private double searchRate;
+
+    @Value("${transaction.rate-limit.search.burst:40}")
+    private int searchBurst;
+
+    @Value("${transaction.rate-limit.export.rate:1}")
+    private double exportRate;
+
+    @Value("${transaction.rate-limit.export.burst:5}")
+    private int exportBurst;
+
+    @Value("${transaction.rate-limit.max-buckets:100000}")
+    private long maxBuckets;
+
+    @Value("${transaction.rate-limit.concurrency.initial-limit:40}")
+    private int initialConcurrency;
+
+    @Value("${transaction.rate-limit.concurrency.min-limit:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int minConcurrency;
+
+    @Value("${transaction.rate-limit.concurrency.max-limit:400}")
+    private int maxConcurrency;
+
+    @Value("${transaction.rate-limit.concurrency.latency-threshold:1000}")
+    private long latencyThreshold;
+
+    @Bean
+    public AdaptiveConcurrencyLimit adaptiveConcurrencyLimit(MeterRegistry meterRegistry) {
+        // a pool larger than the initial limit raises it rather than failing startup
+        final var concurrencyLimit = new AdaptiveConcurrencyLimit(Math.max(initialConcurrency, minConcurrency), minConcurrency, maxConcurrency, Duration.ofMillis(latencyThreshold));
+        Gauge.builder("transaction.rate-limit.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .description("Requests admitted at once, adapted to their latency")
+                .register(meterRegistry);
+        Gauge.builder("transaction.rate-limit.concurrency.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Requests holding a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("transaction.rate-limit.concurrency.latency", concurrencyLimit, AdaptiveConcurrencyLimit::latency)
+                .description("Smoothed latency of the requests holding a permit")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return concurrencyLimit;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(AdaptiveConcurrencyLimit adaptiveConcurrencyLimit, MeterRegistry meterRegistry) {
+        final var endpointLimits = Map.of(
+                "GET /api/v1/transaction/search", new RateLimitFilter.Limit(searchRate, searchBurst),
+                "GET /api/v1/transaction/export", new RateLimitFilter.Limit(exportRate, exportBurst));
+        final var registration = new FilterRegistrationBean<>(new RateLimitFilter(new RateLimitFilter.Limit(rate, burst), endpointLimits, maxBuckets, adaptiveConcurrencyLimit, meterRegistry));
+        registration.addUrlPatterns("/api/v1/transaction/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -1,23 +1,62 @@
 package org.payvyne.transaction.config;
 
+import org.payvyne.transaction.security.AccessTokenService;
+import org.payvyne.transaction.security.BearerTokenAuthenticationFilter;
+import org.payvyne.transaction.security.CachingPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Requests authenticate with Basic credentials or with a bearer token from {@code POST /api/v1/token}. No HTTP
+ * session is kept, so every request is authenticated on its own: with {@code transaction.security.password-encoder=bcrypt}
+ * verified Basic credentials are cached, and a bearer token costs one HMAC.
+ */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    @Value("${transaction.security.password-encoder:noop}")
+    private String passwordEncoder;
+
+    @Value("${transaction.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${transaction.security.credential-cache.max-size:10000}")
+    private long credentialCacheMaxSize;
+
+    @Value("${transaction.security.credential-cache.ttl:300000}")
+    private long credentialCacheTtl;
+
+    @Value("${transaction.security.token.secret:}")
+    private String tokenSecret;
+
+    @Value("${transaction.security.token.validity:900000}")
+    private long tokenValidity;
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http.csrf().disable()
+                .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                .and()
+                .addFilterBefore(new BearerTokenAuthenticationFilter(accessTokenService()), BasicAuthenticationFilter.class)
                 .authorizeHttpRequests()
                 .antMatchers("/*").hasRole("ADMIN")
+                .antMatchers("/api/v1/token").authenticated()
                 .antMatchers("/api/v1/transaction/*").hasRole("USER")
                 .and()
                 .httpBasic();
@@ -25,12 +64,32 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     @Override
     public void configure(AuthenticationManagerBuilder auth) throws Exception {
-        auth.inMemoryAuthentication().withUser("john123").password("password").roles("USER");
-        auth.inMemoryAuthentication().withUser("mdecourci").password("admin").roles("ADMIN");
+        auth.inMemoryAuthentication().withUser("john123").password(passwordEncoder().encode("password")).roles("USER");
+        auth.inMemoryAuthentication().withUser("mdecourci").password(passwordEncoder().encode("admin")).roles("ADMIN");
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return NoOpPasswordEncoder.getInstance();
+        return switch (passwordEncoder) {
+            case "noop" -> NoOpPasswordEncoder.getInstance();
+            case "bcrypt" -> new CachingPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), credentialCacheMaxSize, Duration.ofMillis(credentialCacheTtl));
+            default -> throw new IllegalArgumentException(String.format("Unknown password encoder [%s], expected noop or bcrypt", passwordEncoder));
+        };
+    }
+
+    /**
+     * Signs with {@code transaction.security.token.secret} (base64), or with a random key when none is set, in which
+     * case tokens do not survive a restart.
+     */
+    @Bean
+    public AccessTokenService accessTokenService() {
+        final byte[] secret;
+        if (tokenSecret.isBlank()) {
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = Base64.getDecoder().decode(tokenSecret);
+        }
+        return new AccessTokenService(secret, Duration.ofMillis(tokenValidity), Clock.systemUTC());
     }
 }
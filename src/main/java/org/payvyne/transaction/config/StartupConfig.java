@@ -0,0 +1,46 @@
+package org.payvyne.transaction.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.payvyne.transaction.Application;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.servlet.Filter;
+
+/**
+ * Startup settings for the {@code fast-start} profile (application-fast-start.yml) and the {@code cds} Maven profile.
+ */
+@Configuration
+@Slf4j
+public class StartupConfig {
+
+    /**
+     * With {@code spring.main.lazy-initialization} only framework beans off the request path, such as springdoc and
+     * the actuator endpoints, wait for their first use. The service's own beans start eagerly because their scheduled
+     * jobs, background writers and meters must run without a request to create them. The servlet filters, security
+     * included, start eagerly too, so the first request does not pay for them.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType.getPackageName().startsWith(Application.class.getPackageName())
+                || Filter.class.isAssignableFrom(beanType);
+    }
+
+    /**
+     * Stops the application once it is ready, for the training run that records the classes loaded at startup into
+     * the AppCDS archive.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "transaction.startup.exit-when-ready", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitWhenReady() {
+        return event -> {
+            log.info(">> Started for a training run, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package org.payvyne.transaction.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves requests on virtual threads when {@code transaction.execution.mode=virtual}.
+ * <p>
+ * Tomcat hands every request to a new virtual thread instead of a bounded worker pool, so a request blocked on
+ * JDBC no longer holds a platform thread and {@code server.tomcat.threads.max} stops applying. The Hikari pool
+ * ({@code spring.datasource.hikari.maximum-pool-size}) becomes the only concurrency gate: requests queue for a
+ * connection for up to {@code connection-timeout}. {@code server.tomcat.max-connections} still caps open sockets.
+ * <p>
+ * The build targets Java 16, so the executor is looked up reflectively and needs a Java 21+ runtime; startup
+ * fails on older runtimes rather than silently falling back to platform threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transaction.execution.mode", havingValue = "virtual")
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            final var executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            log.info(">> Serving requests on virtual threads");
+            return executor;
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException("transaction.execution.mode=virtual needs Java 21 or newer, running on " + Runtime.version(), ex);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Could not create the virtual thread executor", ex);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+}
@@ -11,7 +11,12 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
-@Table(name = "TRANSACTION")
+@Table(name = "TRANSACTION", indexes = {
+        @Index(name = "idx_transaction_date_id", columnList = "transactionDate DESC, id DESC"),
+        @Index(name = "idx_transaction_status_date_id", columnList = "transactionStatus, transactionDate DESC, id DESC"),
+        @Index(name = "idx_transaction_currency_date_id", columnList = "currencyCode, transactionDate DESC, id DESC"),
+        @Index(name = "idx_transaction_comment", columnList = "comment")
+})
 @Entity
 @EntityListeners(AuditingEntityListener.class)
 @Builder(toBuilder = true)
@@ -20,8 +25,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @EqualsAndHashCode
 public class Transaction implements Serializable {
+    /**
+     * Number of ids reserved per sequence call; Hibernate's pooled optimizer hands them out in memory.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = Transaction.ID_ALLOCATION_SIZE)
     @Column(name = "id", nullable = false)
     @EqualsAndHashCode.Exclude
     private Long transactionId;
@@ -55,4 +66,9 @@ public class Transaction implements Serializable {
     private LocalDateTime modifiedDate;
 
     private String comment;
+
+    @Version
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    private Long version;
 }
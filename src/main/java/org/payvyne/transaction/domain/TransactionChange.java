@@ -0,0 +1,51 @@
+package org.payvyne.transaction.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A change to a transaction, written to the outbox in the same database transaction as the change itself by
+ * {@link org.payvyne.transaction.service.TransactionOutbox}. The change offset stays null until
+ * {@link org.payvyne.transaction.service.TransactionChangeRelay} publishes the change; offsets are then handed
+ * out in commit order, so consumers can resume after the last offset they saw.
+ */
+@Table(name = "TRANSACTION_CHANGE", indexes = {
+        @Index(name = "idx_transaction_change_offset", columnList = "changeOffset", unique = true)
+})
+@Entity
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_change_seq")
+    @SequenceGenerator(name = "transaction_change_seq", sequenceName = "transaction_change_seq", allocationSize = Transaction.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    private Long changeOffset;
+
+    /**
+     * Null for {@link TransactionChangeType#ALL_DELETED}.
+     */
+    private Long transactionId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TransactionChangeType changeType;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionStatus transactionStatus;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionStatus previousStatus;
+
+    @Column(nullable = false)
+    private LocalDateTime changedDate;
+}
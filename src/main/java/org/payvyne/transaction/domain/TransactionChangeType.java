@@ -0,0 +1,8 @@
+package org.payvyne.transaction.domain;
+
+public enum TransactionChangeType {
+    CREATED,
+    STATUS_CHANGED,
+    DELETED,
+    ALL_DELETED
+}
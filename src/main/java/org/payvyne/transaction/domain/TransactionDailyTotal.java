@@ -0,0 +1,29 @@
+package org.payvyne.transaction.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Number and sum of the transactions of one day, currency and status. Maintained by
+ * {@link org.payvyne.transaction.service.TransactionStatisticsService} as transactions are written.
+ */
+@Table(name = "TRANSACTION_DAILY_TOTAL")
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionDailyTotal implements Serializable {
+    @EmbeddedId
+    private TransactionDailyTotalId id;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+}
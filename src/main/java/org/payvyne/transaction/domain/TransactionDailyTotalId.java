@@ -0,0 +1,40 @@
+package org.payvyne.transaction.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionDailyTotalId implements Serializable {
+    @Column(nullable = false)
+    private LocalDate transactionDay;
+
+    @Column(nullable = false)
+    private String currencyCode;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TransactionStatus transactionStatus;
+
+    public static TransactionDailyTotalId of(Transaction transaction) {
+        return of(transaction, transaction.getTransactionStatus());
+    }
+
+    public static TransactionDailyTotalId of(Transaction transaction, TransactionStatus transactionStatus) {
+        return new TransactionDailyTotalId(transaction.getTransactionDate().toLocalDate(), transaction.getCurrencyCode(), transactionStatus);
+    }
+
+    public static TransactionDailyTotalId of(TransactionState transaction, TransactionStatus transactionStatus) {
+        return new TransactionDailyTotalId(transaction.transactionDate().toLocalDate(), transaction.currencyCode(), transactionStatus);
+    }
+}
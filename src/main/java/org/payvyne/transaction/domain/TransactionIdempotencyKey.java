@@ -0,0 +1,38 @@
+package org.payvyne.transaction.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The Idempotency-Key a transaction was created with. Kept apart from the transaction table so the key is unique
+ * across all of its partitions.
+ */
+@Table(name = "TRANSACTION_IDEMPOTENCY_KEY", indexes = {
+        @Index(name = "idx_transaction_idempotency_key_created", columnList = "createdDate")
+})
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionIdempotencyKey {
+
+    @Id
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    /**
+     * Tells a retry of the same request apart from another request reusing the key: the hex SHA-256 of the request's
+     * fields.
+     */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private LocalDateTime createdDate;
+}
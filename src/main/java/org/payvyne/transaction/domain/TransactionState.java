@@ -0,0 +1,11 @@
+package org.payvyne.transaction.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a transaction that writes need to check and keep the daily totals right, read without loading
+ * the entity.
+ */
+public record TransactionState(Long transactionId, LocalDateTime transactionDate, String currencyCode, BigDecimal amount, TransactionStatus transactionStatus, Long version) {
+}
@@ -0,0 +1,7 @@
+package org.payvyne.transaction.exception;
+
+public class TransactionChangeStreamFullException extends RuntimeException {
+    public TransactionChangeStreamFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.payvyne.transaction.exception;
+
+public class TransactionIngestRejectedException extends RuntimeException {
+    public TransactionIngestRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.payvyne.transaction.exception;
+
+public class TransactionPreconditionFailedException extends RuntimeException {
+    public TransactionPreconditionFailedException(String message) {
+        super(message);
+    }
+}
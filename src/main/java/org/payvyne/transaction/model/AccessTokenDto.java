@@ -0,0 +1,4 @@
+package org.payvyne.transaction.model;
+
+public record AccessTokenDto(String accessToken, String tokenType, long expiresIn) {
+}
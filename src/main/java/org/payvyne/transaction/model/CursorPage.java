@@ -0,0 +1,9 @@
+package org.payvyne.transaction.model;
+
+import java.util.List;
+
+/**
+ * A keyset page: no total count, and {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+}
@@ -0,0 +1,12 @@
+package org.payvyne.transaction.model;
+
+public record TransactionBatchResultDto(int row, Long transactionId, String error) {
+
+    public static TransactionBatchResultDto created(int row, Long transactionId) {
+        return new TransactionBatchResultDto(row, transactionId, null);
+    }
+
+    public static TransactionBatchResultDto rejected(int row, String error) {
+        return new TransactionBatchResultDto(row, null, error);
+    }
+}
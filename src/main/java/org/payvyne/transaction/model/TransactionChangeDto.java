@@ -0,0 +1,15 @@
+package org.payvyne.transaction.model;
+
+import org.payvyne.transaction.domain.TransactionChange;
+import org.payvyne.transaction.domain.TransactionChangeType;
+import org.payvyne.transaction.domain.TransactionStatus;
+
+import java.time.LocalDateTime;
+
+public record TransactionChangeDto(long offset, Long transactionId, TransactionChangeType changeType, TransactionStatus transactionStatus,
+                                   TransactionStatus previousStatus, LocalDateTime changedDate) {
+
+    public static TransactionChangeDto of(TransactionChange change) {
+        return new TransactionChangeDto(change.getChangeOffset(), change.getTransactionId(), change.getChangeType(), change.getTransactionStatus(), change.getPreviousStatus(), change.getChangedDate());
+    }
+}
@@ -0,0 +1,38 @@
+package org.payvyne.transaction.model;
+
+import org.payvyne.transaction.domain.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last transaction of a keyset page, handed to clients as an opaque URL-safe token.
+ */
+public record TransactionCursor(LocalDateTime transactionDate, Long transactionId) {
+
+    private static final char SEPARATOR = '_';
+
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getTransactionDate(), transaction.getTransactionId());
+    }
+
+    public static TransactionCursor of(TransactionSummary transaction) {
+        return new TransactionCursor(transaction.transactionDate(), transaction.transactionId());
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            final var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final var separator = decoded.lastIndexOf(SEPARATOR);
+            return new TransactionCursor(LocalDateTime.parse(decoded.substring(0, separator)), Long.valueOf(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((transactionDate.toString() + SEPARATOR + transactionId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,9 @@
+package org.payvyne.transaction.model;
+
+import org.payvyne.transaction.domain.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record TransactionDailyTotalDto(LocalDate date, String currencyCode, TransactionStatus transactionStatus, long transactionCount, BigDecimal totalAmount) {
+}
@@ -0,0 +1,4 @@
+package org.payvyne.transaction.model;
+
+public record TransactionRetentionResultDto(long deleted, int chunks) {
+}
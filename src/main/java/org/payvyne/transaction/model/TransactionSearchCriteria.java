@@ -0,0 +1,24 @@
+package org.payvyne.transaction.model;
+
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Filters of a transaction search. The date range is mandatory, every other filter is optional and narrows it
+ * further.
+ */
+public record TransactionSearchCriteria(@DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+                                        TransactionStatus transactionStatus,
+                                        String currencyCode,
+                                        BigDecimal minAmount,
+                                        BigDecimal maxAmount,
+                                        String commentPrefix) {
+
+    public static TransactionSearchCriteria between(LocalDate fromDate, LocalDate toDate) {
+        return new TransactionSearchCriteria(fromDate, toDate, null, null, null, null, null);
+    }
+}
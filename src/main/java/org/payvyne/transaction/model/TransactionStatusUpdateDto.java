@@ -0,0 +1,8 @@
+package org.payvyne.transaction.model;
+
+import org.payvyne.transaction.domain.TransactionStatus;
+
+import java.util.List;
+
+public record TransactionStatusUpdateDto(List<Long> transactionIds, TransactionStatus transactionStatus, String comment) {
+}
@@ -0,0 +1,42 @@
+package org.payvyne.transaction.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.payvyne.transaction.domain.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A transaction as listed by the list and search endpoints: selected column by column rather than loaded as an
+ * entity, and without the audit fields. Fields a client did not ask for are left null and not serialized.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionSummary(Long transactionId, LocalDateTime transactionDate, TransactionStatus transactionStatus,
+                                 String currencyCode, BigDecimal amount, String comment) {
+
+    public static final List<String> FIELDS = List.of("transactionId", "transactionDate", "transactionStatus", "currencyCode", "amount", "comment");
+
+    /**
+     * The fields to select for a {@code fields=} request: all of them when none are requested. transactionId and
+     * transactionDate are always selected, they identify the transaction and position keyset pages.
+     *
+     * @throws IllegalArgumentException when a requested field does not exist
+     */
+    public static Set<String> fields(Collection<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return Set.copyOf(FIELDS);
+        }
+        final var fields = new LinkedHashSet<>(List.of("transactionId", "transactionDate"));
+        for (String field : requested) {
+            if (!FIELDS.contains(field)) {
+                throw new IllegalArgumentException(String.format("Unknown field [%s], expected some of %s", field, FIELDS));
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+}
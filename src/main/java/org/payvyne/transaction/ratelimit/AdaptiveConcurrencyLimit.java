@@ -0,0 +1,98 @@
+package org.payvyne.transaction.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the requests in flight, and moves the cap with their latency by additive increase and multiplicative decrease.
+ * These requests spend most of their time in the database, so a climbing latency means the pool or the database is
+ * saturated, and admitting more requests would only queue them for a connection. While the smoothed latency stays
+ * under the threshold and at least half the limit is in use, every response raises the limit by one. Above the
+ * threshold it is cut by a tenth, at most once per threshold interval so the cut can take effect. All state is in
+ * atomics, and no request waits on a lock.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SMOOTHING = 0.1;
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThreshold;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong smoothedLatency = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicLong lastBackoff;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("Expected 1 <= min-limit <= initial-limit <= max-limit, got %d, %d and %d", minLimit, initialLimit, maxLimit));
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold.toNanos();
+        limit = new AtomicInteger(initialLimit);
+        lastBackoff = new AtomicLong(System.nanoTime() - this.latencyThreshold);
+    }
+
+    /**
+     * @return true when the request may proceed, in which case {@link #release(long, long)} must follow
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final var current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latency nanoseconds the request took, or a negative value when it says nothing about the database
+     * @param now     {@link System#nanoTime()}
+     */
+    public void release(long latency, long now) {
+        final var remaining = inFlight.decrementAndGet();
+        if (latency < 0) {
+            return;
+        }
+        if (smooth(latency) > latencyThreshold) {
+            final var last = lastBackoff.get();
+            if (now - last >= latencyThreshold && lastBackoff.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * BACKOFF)));
+            }
+        } else if (remaining + 1 >= limit.get() / 2) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int limit() {
+        return limit.get();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the smoothed request latency in milliseconds
+     */
+    public double latency() {
+        return Double.longBitsToDouble(smoothedLatency.get()) / 1_000_000;
+    }
+
+    private double smooth(long latency) {
+        while (true) {
+            final var bits = smoothedLatency.get();
+            final var previous = Double.longBitsToDouble(bits);
+            final var next = previous == 0 ? latency : previous + SMOOTHING * (latency - previous);
+            if (smoothedLatency.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return next;
+            }
+        }
+    }
+}
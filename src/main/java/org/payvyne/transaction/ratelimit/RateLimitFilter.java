@@ -0,0 +1,149 @@
+package org.payvyne.transaction.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the transaction API with a {@link TokenBucket} per user and endpoint, and sheds load for everyone with an
+ * {@link AdaptiveConcurrencyLimit} when the database slows down. It runs after Spring Security, so the user is known,
+ * and answers a rejected request with 429 and Retry-After before it reaches the controller or takes a connection.
+ * <p>
+ * An endpoint is the method and the path, with numeric ids replaced by {@code {id}}. The change stream and the export
+ * are only rate limited: they keep their request open for minutes, so they would hold concurrency permits and skew the
+ * latency the limit follows. For the same reason a request that went asynchronous is not part of the latency sample,
+ * as its filter chain returns before the response is written.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LONG_RUNNING = Set.of("GET /api/v1/transaction/changes", "GET /api/v1/transaction/export");
+
+    public record Limit(double rate, int burst) {
+    }
+
+    private final Limit defaultLimit;
+    private final Map<String, Limit> endpointLimits;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    /**
+     * @param endpointLimits limits replacing {@code defaultLimit} for some endpoints, e.g. {@code GET /api/v1/transaction/search}
+     * @param maxBuckets     user and endpoint pairs tracked at once; the least recently seen are dropped, with a full bucket
+     */
+    public RateLimitFilter(Limit defaultLimit, Map<String, Limit> endpointLimits, long maxBuckets, AdaptiveConcurrencyLimit concurrencyLimit, MeterRegistry meterRegistry) {
+        this.defaultLimit = defaultLimit;
+        this.endpointLimits = Map.copyOf(endpointLimits);
+        this.concurrencyLimit = concurrencyLimit;
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        rateLimited = Counter.builder("transaction.rate-limit.rejected")
+                .description("Requests rejected with 429")
+                .tag("reason", "rate")
+                .register(meterRegistry);
+        shed = Counter.builder("transaction.rate-limit.rejected")
+                .description("Requests rejected with 429")
+                .tag("reason", "concurrency")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        final var endpoint = endpoint(request);
+        final var limit = endpointLimits.getOrDefault(endpoint, defaultLimit);
+        final var now = System.nanoTime();
+        final var wait = buckets.get(user() + " " + endpoint, key -> new TokenBucket(limit.rate(), limit.burst(), now)).tryTake(now);
+        if (wait > 0) {
+            rateLimited.increment();
+            reject(response, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1), "Too many requests to " + endpoint + ", retry later");
+            return;
+        }
+
+        if (LONG_RUNNING.contains(endpoint)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            shed.increment();
+            reject(response, 1, "The service is busy, retry later");
+            return;
+        }
+        final var started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            final var finished = System.nanoTime();
+            concurrencyLimit.release(request.isAsyncStarted() ? -1 : finished - started, finished);
+        }
+    }
+
+    private static String user() {
+        final var authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "" : authentication.getName();
+    }
+
+    /**
+     * @return e.g. {@code GET /api/v1/transaction/{id}}, without a trailing slash
+     */
+    private static String endpoint(HttpServletRequest request) {
+        final var path = request.getRequestURI();
+        final var endpoint = new StringBuilder(request.getMethod().length() + path.length() + 1).append(request.getMethod()).append(' ');
+        int start = 0;
+        while (start < path.length()) {
+            var end = path.indexOf('/', start + 1);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end == start + 1 && end == path.length() && start > 0) {
+                break;
+            }
+            if (isId(path, start + 1, end)) {
+                endpoint.append("/{id}");
+            } else {
+                endpoint.append(path, start, end);
+            }
+            start = end;
+        }
+        return endpoint.toString();
+    }
+
+    private static boolean isId(String path, int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (path.charAt(i) < '0' || path.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfterSeconds)));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,41 @@
+package org.payvyne.transaction.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket refilled at {@code rate} tokens per second and holding at most {@code burst}, kept lock-free in a
+ * single {@link AtomicLong} as in the generic cell rate algorithm. The long holds the instant at which the bucket will
+ * be full again. Each token taken moves that instant one refill interval later, and a token can be taken as long as
+ * the instant stays within {@code burst} intervals of now. No refill thread or timestamp bookkeeping is needed.
+ */
+final class TokenBucket {
+
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong fullAt;
+
+    TokenBucket(double rate, int burst, long now) {
+        interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        tolerance = interval * burst;
+        fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * @param now {@link System#nanoTime()}
+     * @return 0 when a token was taken, otherwise the nanoseconds until the next one can be
+     */
+    long tryTake(long now) {
+        while (true) {
+            final var current = fullAt.get();
+            final var next = Math.max(current, now) + interval;
+            final var wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.payvyne.transaction.repository;
+
+import org.payvyne.transaction.domain.TransactionChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransactionChangeRepository extends JpaRepository<TransactionChange, Long> {
+
+    /**
+     * The oldest changes not yet published, locked so that concurrent relays publish them one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from TransactionChange c where c.changeOffset is null order by c.id")
+    List<TransactionChange> findUnpublishedForUpdate(Pageable limit);
+
+    @Query("select coalesce(max(c.changeOffset), 0) from TransactionChange c")
+    long findLastOffset();
+
+    @Query("select c from TransactionChange c where c.changeOffset > :offset order by c.changeOffset")
+    List<TransactionChange> findPublishedAfter(@Param("offset") long offset, Pageable limit);
+
+    @Modifying
+    @Query("delete from TransactionChange c where c.changeOffset is not null and c.changedDate < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
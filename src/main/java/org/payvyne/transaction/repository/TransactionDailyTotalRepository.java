@@ -0,0 +1,29 @@
+package org.payvyne.transaction.repository;
+
+import org.payvyne.transaction.domain.TransactionDailyTotal;
+import org.payvyne.transaction.domain.TransactionDailyTotalId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TransactionDailyTotalRepository extends JpaRepository<TransactionDailyTotal, TransactionDailyTotalId> {
+
+    /**
+     * Creates an empty bucket unless one exists, without failing when a concurrent transaction creates it first.
+     */
+    @Modifying
+    @Query(value = "insert into transaction_daily_total (transaction_day, currency_code, transaction_status, transaction_count, total_amount) values (:#{#id.transactionDay}, :#{#id.currencyCode}, :#{#id.transactionStatus.name()}, 0, 0) on conflict do nothing", nativeQuery = true)
+    void createIfAbsent(@Param("id") TransactionDailyTotalId id);
+
+    @Modifying
+    @Query("update TransactionDailyTotal d set d.transactionCount = d.transactionCount + :count, d.totalAmount = d.totalAmount + :amount where d.id.transactionDay = :#{#id.transactionDay} and d.id.currencyCode = :#{#id.currencyCode} and d.id.transactionStatus = :#{#id.transactionStatus}")
+    void add(@Param("id") TransactionDailyTotalId id, @Param("count") long count, @Param("amount") BigDecimal amount);
+
+    @Query("select d from TransactionDailyTotal d where d.id.transactionDay between :fromDay and :toDay and d.transactionCount > 0 order by d.id.transactionDay, d.id.currencyCode, d.id.transactionStatus")
+    List<TransactionDailyTotal> findBetween(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+}
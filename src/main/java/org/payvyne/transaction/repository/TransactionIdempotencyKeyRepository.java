@@ -0,0 +1,25 @@
+package org.payvyne.transaction.repository;
+
+import org.payvyne.transaction.domain.TransactionIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface TransactionIdempotencyKeyRepository extends JpaRepository<TransactionIdempotencyKey, String> {
+
+    /**
+     * Stores the key unless it exists, without failing (and aborting the database transaction) when it does.
+     *
+     * @return 1 when stored, 0 when the key was already taken
+     */
+    @Modifying
+    @Query(value = "insert into transaction_idempotency_key (idempotency_key, transaction_id, request_hash, created_date) values (:idempotencyKey, :transactionId, :requestHash, :createdDate) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("idempotencyKey") String idempotencyKey, @Param("transactionId") Long transactionId, @Param("requestHash") String requestHash, @Param("createdDate") LocalDateTime createdDate);
+
+    @Modifying
+    @Query("delete from TransactionIdempotencyKey k where k.createdDate < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
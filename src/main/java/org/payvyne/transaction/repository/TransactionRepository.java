@@ -1,12 +1,82 @@
 package org.payvyne.transaction.repository;
 
 import org.payvyne.transaction.domain.Transaction;
-import org.springframework.data.domain.Page;
+import org.payvyne.transaction.domain.TransactionState;
+import org.payvyne.transaction.domain.TransactionStatus;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    Page<Transaction> findByTransactionDateBetween(LocalDateTime fromDate, LocalDateTime toDate, Pageable pageRequest);
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction>, TransactionRepositoryCustom {
+
+    /**
+     * Streams the range through a server-side cursor. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select t from Transaction t where t.transactionDate between :fromDate and :toDate order by t.transactionDate, t.transactionId")
+    Stream<Transaction> streamByTransactionDateBetween(@Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate);
+
+    @Query("select new org.payvyne.transaction.domain.TransactionState(t.transactionId, t.transactionDate, t.currencyCode, t.amount, t.transactionStatus, t.version) from Transaction t where t.transactionId = :id")
+    Optional<TransactionState> findStateById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new org.payvyne.transaction.domain.TransactionState(t.transactionId, t.transactionDate, t.currencyCode, t.amount, t.transactionStatus, t.version) from Transaction t where t.transactionId in :ids")
+    List<TransactionState> findStatesByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("select t.version from Transaction t where t.transactionId = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Changes the status only if the row still has the version that was read, so concurrent status changes are
+     * rejected instead of overwriting each other.
+     *
+     * @return 1 when updated, 0 when the transaction no longer exists or has a newer version
+     */
+    @Modifying
+    @Query("update Transaction t set t.transactionStatus = :transactionStatus, t.comment = coalesce(:comment, t.comment), t.version = t.version + 1, t.modifiedDate = :modifiedDate where t.transactionId = :id and t.version = :version")
+    int updateStatus(@Param("id") Long id, @Param("version") Long version, @Param("transactionStatus") TransactionStatus transactionStatus, @Param("comment") String comment, @Param("modifiedDate") LocalDateTime modifiedDate);
+
+    @Modifying
+    @Query("update Transaction t set t.comment = :comment, t.version = t.version + 1, t.modifiedDate = :modifiedDate where t.transactionId = :id")
+    int updateComment(@Param("id") Long id, @Param("comment") String comment, @Param("modifiedDate") LocalDateTime modifiedDate);
+
+    /**
+     * Changes the comment only if the row still has the version that was read.
+     *
+     * @return 1 when updated, 0 when the transaction no longer exists or has a newer version
+     */
+    @Modifying
+    @Query("update Transaction t set t.comment = :comment, t.version = t.version + 1, t.modifiedDate = :modifiedDate where t.transactionId = :id and t.version = :version")
+    int updateComment(@Param("id") Long id, @Param("version") Long version, @Param("comment") String comment, @Param("modifiedDate") LocalDateTime modifiedDate);
+
+    @Modifying
+    @Query("update Transaction t set t.transactionStatus = :transactionStatus, t.comment = coalesce(:comment, t.comment), t.version = t.version + 1, t.modifiedDate = :modifiedDate where t.transactionId in :ids")
+    int updateStatuses(@Param("ids") Collection<Long> ids, @Param("transactionStatus") TransactionStatus transactionStatus, @Param("comment") String comment, @Param("modifiedDate") LocalDateTime modifiedDate);
+
+    /**
+     * The next chunk of transactions due for retention, locked so their status cannot change before they are deleted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new org.payvyne.transaction.domain.TransactionState(t.transactionId, t.transactionDate, t.currencyCode, t.amount, t.transactionStatus, t.version) from Transaction t where t.transactionDate >= :fromDate and t.transactionDate < :toDate and (:transactionStatus is null or t.transactionStatus = :transactionStatus)")
+    List<TransactionState> findStatesForRetention(@Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate, @Param("transactionStatus") TransactionStatus transactionStatus, Pageable limit);
+
+    @Modifying
+    @Query("delete from Transaction t where t.transactionId in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
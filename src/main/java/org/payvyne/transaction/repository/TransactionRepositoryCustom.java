@@ -0,0 +1,24 @@
+package org.payvyne.transaction.repository;
+
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.model.TransactionSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Inserts transactions whose ids were already assigned, as one JDBC batch that bypasses the persistence
+     * context. Must be called inside a transaction.
+     */
+    void insertAll(List<Transaction> transactions);
+
+    /**
+     * The page of matching transactions as summaries holding only the given fields, selected as a tuple query so
+     * no entity is loaded or tracked.
+     */
+    List<TransactionSummary> findSummaries(Specification<Transaction> specification, Set<String> fields, Pageable pageable);
+}
@@ -0,0 +1,72 @@
+package org.payvyne.transaction.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.TransactionSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.Selection;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private static final String INSERT_SQL = "insert into transaction (id, transaction_date, transaction_status, currency_code, amount, created_date, modified_date, comment, version) values (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(), (statement, transaction) -> {
+            statement.setLong(1, transaction.getTransactionId());
+            statement.setTimestamp(2, Timestamp.valueOf(transaction.getTransactionDate()));
+            statement.setString(3, transaction.getTransactionStatus().name());
+            statement.setString(4, transaction.getCurrencyCode());
+            statement.setBigDecimal(5, transaction.getAmount());
+            statement.setTimestamp(6, Timestamp.valueOf(transaction.getCreatedDate()));
+            statement.setTimestamp(7, Timestamp.valueOf(transaction.getModifiedDate()));
+            statement.setString(8, transaction.getComment());
+        });
+    }
+
+    @Override
+    public List<TransactionSummary> findSummaries(Specification<Transaction> specification, Set<String> fields, Pageable pageable) {
+        final var builder = entityManager.getCriteriaBuilder();
+        final var query = builder.createTupleQuery();
+        final var root = query.from(Transaction.class);
+        query.multiselect(fields.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList());
+        final var predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultStream()
+                .map(tuple -> new TransactionSummary(
+                        value(tuple, fields, "transactionId", Long.class),
+                        value(tuple, fields, "transactionDate", LocalDateTime.class),
+                        value(tuple, fields, "transactionStatus", TransactionStatus.class),
+                        value(tuple, fields, "currencyCode", String.class),
+                        value(tuple, fields, "amount", BigDecimal.class),
+                        value(tuple, fields, "comment", String.class)))
+                .toList();
+    }
+
+    private static <T> T value(Tuple tuple, Set<String> fields, String field, Class<T> type) {
+        return fields.contains(field) ? tuple.get(field, type) : null;
+    }
+}
@@ -0,0 +1,71 @@
+package org.payvyne.transaction.repository;
+
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.TransactionCursor;
+import org.payvyne.transaction.model.TransactionSearchCriteria;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Composable search filters. Each factory returns null for a missing value, which {@link Specification#and}
+ * ignores, so only the filters a search actually uses end up in the query.
+ */
+public final class TransactionSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> matching(TransactionSearchCriteria criteria) {
+        return Specification.where(transactionDateBetween(criteria.fromDate(), criteria.toDate()))
+                .and(hasTransactionStatus(criteria.transactionStatus()))
+                .and(hasCurrencyCode(criteria.currencyCode()))
+                .and(amountAtLeast(criteria.minAmount()))
+                .and(amountAtMost(criteria.maxAmount()))
+                .and(commentStartsWith(criteria.commentPrefix()));
+    }
+
+    public static Specification<Transaction> transactionDateBetween(LocalDate fromDate, LocalDate toDate) {
+        return (root, query, builder) -> builder.between(root.get("transactionDate"), fromDate.atStartOfDay(), toDate.atStartOfDay());
+    }
+
+    public static Specification<Transaction> hasTransactionStatus(TransactionStatus transactionStatus) {
+        return transactionStatus == null ? null : (root, query, builder) -> builder.equal(root.get("transactionStatus"), transactionStatus);
+    }
+
+    public static Specification<Transaction> hasCurrencyCode(String currencyCode) {
+        return currencyCode == null ? null : (root, query, builder) -> builder.equal(root.get("currencyCode"), currencyCode);
+    }
+
+    public static Specification<Transaction> amountAtLeast(BigDecimal minAmount) {
+        return minAmount == null ? null : (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("amount"), minAmount);
+    }
+
+    public static Specification<Transaction> amountAtMost(BigDecimal maxAmount) {
+        return maxAmount == null ? null : (root, query, builder) -> builder.lessThanOrEqualTo(root.get("amount"), maxAmount);
+    }
+
+    public static Specification<Transaction> commentStartsWith(String commentPrefix) {
+        if (commentPrefix == null || commentPrefix.isEmpty()) {
+            return null;
+        }
+        final var pattern = commentPrefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + '%';
+        return (root, query, builder) -> builder.like(root.get("comment"), pattern, LIKE_ESCAPE);
+    }
+
+    /**
+     * Transactions after the cursor in newest-first order. The redundant "transactionDate <= cursor" bound is what
+     * lets the database seek straight to the cursor in idx_transaction_date_id instead of walking the index from
+     * the top.
+     */
+    public static Specification<Transaction> before(TransactionCursor cursor) {
+        return (root, query, builder) -> builder.and(
+                builder.lessThanOrEqualTo(root.get("transactionDate"), cursor.transactionDate()),
+                builder.or(builder.lessThan(root.get("transactionDate"), cursor.transactionDate()),
+                        builder.lessThan(root.get("transactionId"), cursor.transactionId())));
+    }
+}
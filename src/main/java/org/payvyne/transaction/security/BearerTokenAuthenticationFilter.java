@@ -0,0 +1,44 @@
+package org.payvyne.transaction.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>} with {@link AccessTokenService}; an
+ * invalid or expired token is answered with 401 straight away. Other requests pass through to Basic authentication.
+ */
+@RequiredArgsConstructor
+public class BearerTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = AccessTokenService.TOKEN_TYPE + " ";
+
+    private final AccessTokenService accessTokenService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        final var header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final var authentication = accessTokenService.verify(header.substring(PREFIX.length()).trim());
+        if (authentication.isEmpty()) {
+            SecurityContextHolder.clearContext();
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, AccessTokenService.TOKEN_TYPE + " error=\"invalid_token\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        final var context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication.get());
+        SecurityContextHolder.setContext(context);
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,65 @@
+package org.payvyne.transaction.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Remembers which raw and encoded password pairs matched, so a client sending the same Basic credentials with every
+ * request pays for the deliberately slow delegate once per {@code ttl} rather than once per request. Only a SHA-256
+ * digest of each pair is kept, and failed matches are never cached.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Cache<String, Boolean> verified;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, long maximumSize, Duration ttl) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        final var key = digest(rawPassword, encodedPassword);
+        if (verified.getIfPresent(key) != null) {
+            return true;
+        }
+        if (!delegate.matches(rawPassword, encodedPassword)) {
+            return false;
+        }
+        verified.put(key, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static String digest(CharSequence rawPassword, String encodedPassword) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.payvyne.transaction.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.payvyne.transaction.model.TransactionChangeDto;
+import org.payvyne.transaction.repository.TransactionChangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes the changes recorded by {@link TransactionOutbox} to every {@link TransactionChangeSink}. Each run
+ * takes the unpublished changes in batches of {@code relayBatchSize}, gives them the next offsets and commits,
+ * then hands the batch to the sinks. The unpublished rows stay locked until the commit, so with several instances
+ * the relays take turns and offsets still follow commit order.
+ * <p>
+ * Published changes are kept for {@code retentionDays} so consumers can resume from an older offset.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionChangeRelay {
+
+    private final TransactionChangeRepository transactionChangeRepository;
+    private final List<TransactionChangeSink> transactionChangeSinks;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transaction.changes.relay-batch-size:500}")
+    private int relayBatchSize;
+
+    @Value("${transaction.changes.retention-days:7}")
+    private int retentionDays;
+
+    private Counter relayed;
+
+    @PostConstruct
+    void registerMetrics() {
+        relayed = Counter.builder("transaction.changes.relayed")
+                .description("Transaction changes published to the sinks")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.changes.relay-interval:200}")
+    public void relay() {
+        List<TransactionChangeDto> batch;
+        do {
+            batch = transactionTemplate.execute(status -> assignOffsets());
+            if (!batch.isEmpty()) {
+                publish(batch);
+            }
+        } while (batch.size() == relayBatchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.changes.cleanup-interval:3600000}")
+    public void deletePublishedChanges() {
+        final var deleted = transactionTemplate.execute(status -> transactionChangeRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted > 0) {
+            log.info(">> Deleted [{}] published transaction changes older than [{}] days", deleted, retentionDays);
+        }
+    }
+
+    private List<TransactionChangeDto> assignOffsets() {
+        final var changes = transactionChangeRepository.findUnpublishedForUpdate(PageRequest.of(0, relayBatchSize));
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+        var offset = transactionChangeRepository.findLastOffset();
+        final var batch = new ArrayList<TransactionChangeDto>(changes.size());
+        for (var change : changes) {
+            change.setChangeOffset(++offset);
+            batch.add(TransactionChangeDto.of(change));
+        }
+        return batch;
+    }
+
+    private void publish(List<TransactionChangeDto> batch) {
+        for (var sink : transactionChangeSinks) {
+            try {
+                sink.publish(batch);
+            } catch (RuntimeException ex) {
+                log.error(">> Failed to publish transaction changes with offsets [{}] to [{}] to [{}]", batch.get(0).offset(), batch.get(batch.size() - 1).offset(), sink.getClass().getSimpleName(), ex);
+            }
+        }
+        relayed.increment(batch.size());
+    }
+}
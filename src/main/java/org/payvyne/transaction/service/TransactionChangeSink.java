@@ -0,0 +1,18 @@
+package org.payvyne.transaction.service;
+
+import org.payvyne.transaction.model.TransactionChangeDto;
+
+import java.util.List;
+
+/**
+ * Receives the transaction changes published by {@link TransactionChangeRelay}. Implement it as a bean to forward
+ * changes to a message broker.
+ * <p>
+ * Each batch is handed over once, in offset order, after its offsets have been committed. A sink that must not
+ * lose changes when it fails should remember the last offset it delivered and catch up from
+ * {@link TransactionOutbox#findAfter(long, int)}.
+ */
+public interface TransactionChangeSink {
+
+    void publish(List<TransactionChangeDto> changes);
+}
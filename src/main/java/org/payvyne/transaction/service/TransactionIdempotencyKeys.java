@@ -0,0 +1,206 @@
+package org.payvyne.transaction.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.exception.TransactionConflictException;
+import org.payvyne.transaction.repository.TransactionIdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key bookkeeping for transaction creation. Keys are stored with a unique constraint and kept for
+ * {@code retentionHours}; the most recently used ones are also kept in a bounded in-memory LRU, so a retry arriving
+ * shortly after the original request is answered without touching the database. A new key costs no lookup at
+ * all: it is inserted with the transaction and only a conflicting insert leads to reading the original.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionIdempotencyKeys {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final TransactionIdempotencyKeyRepository transactionIdempotencyKeyRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transaction.idempotency.recent-keys:100000}")
+    private long recentKeysSize;
+
+    @Value("${transaction.idempotency.retention-hours:24}")
+    private int retentionHours;
+
+    private Cache<String, RecentKey> recentKeys;
+    private Counter replayedFromMemory;
+    private Counter replayedFromDatabase;
+
+    @PostConstruct
+    void start() {
+        recentKeys = Caffeine.newBuilder().maximumSize(recentKeysSize).expireAfterWrite(Duration.ofHours(retentionHours)).build();
+        replayedFromMemory = Counter.builder("transaction.idempotency.replayed")
+                .description("Retried creates answered with the original transaction id")
+                .tag("source", "memory")
+                .register(meterRegistry);
+        replayedFromDatabase = Counter.builder("transaction.idempotency.replayed")
+                .description("Retried creates answered with the original transaction id")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the key is empty or too long
+     */
+    public static void validate(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(String.format("Idempotency-Key must have between 1 and %d characters", MAX_KEY_LENGTH));
+        }
+    }
+
+    /**
+     * The id of the transaction recently created with this key, looked up in memory only.
+     *
+     * @throws TransactionConflictException when the key was used for a different transaction
+     */
+    public Optional<Long> findRecent(String idempotencyKey, Transaction transaction) {
+        final var recent = recentKeys.getIfPresent(idempotencyKey);
+        if (recent == null) {
+            return Optional.empty();
+        }
+        replayedFromMemory.increment();
+        return Optional.of(recent.transactionIdFor(idempotencyKey, transaction));
+    }
+
+    /**
+     * Like {@link #findRecent(String, Transaction)}, falling back to the stored keys.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> find(String idempotencyKey, Transaction transaction) {
+        final var recent = findRecent(idempotencyKey, transaction);
+        if (recent.isPresent()) {
+            return recent;
+        }
+        return transactionIdempotencyKeyRepository.findById(idempotencyKey).map(stored -> {
+            final var recentKey = new RecentKey(stored.getTransactionId(), stored.getRequestHash());
+            recentKeys.put(idempotencyKey, recentKey);
+            replayedFromDatabase.increment();
+            return recentKey.transactionIdFor(idempotencyKey, transaction);
+        });
+    }
+
+    /**
+     * Claims the key in memory for a transaction that is about to be written, so concurrent retries on this
+     * instance get its id before it is stored.
+     *
+     * @return the id of the transaction that already holds the key, empty when the key is now claimed
+     */
+    public Optional<Long> claim(String idempotencyKey, Transaction transaction) {
+        final var previous = recentKeys.asMap().putIfAbsent(idempotencyKey, new RecentKey(transaction.getTransactionId(), requestHash(transaction)));
+        if (previous == null) {
+            return Optional.empty();
+        }
+        replayedFromMemory.increment();
+        return Optional.of(previous.transactionIdFor(idempotencyKey, transaction));
+    }
+
+    /**
+     * Releases keys claimed for transactions that were never written.
+     */
+    public void release(Collection<String> idempotencyKeys) {
+        recentKeys.invalidateAll(idempotencyKeys);
+    }
+
+    /**
+     * Stores the key of a transaction being created; it joins the recent keys once the database transaction commits.
+     * When the key is already stored, the stored transaction replaces whatever was claimed for this one in memory,
+     * so retries are not answered with the id of a transaction that is never written.
+     *
+     * @return false when the key is already stored, in which case the transaction must not be written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean store(String idempotencyKey, Transaction transaction) {
+        final var recentKey = new RecentKey(transaction.getTransactionId(), requestHash(transaction));
+        if (transactionIdempotencyKeyRepository.insertIfAbsent(idempotencyKey, recentKey.transactionId(), recentKey.requestHash(), LocalDateTime.now()) == 0) {
+            transactionIdempotencyKeyRepository.findById(idempotencyKey).ifPresentOrElse(
+                    stored -> recentKeys.put(idempotencyKey, new RecentKey(stored.getTransactionId(), stored.getRequestHash())),
+                    () -> recentKeys.invalidate(idempotencyKey));
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentKeys.put(idempotencyKey, recentKey);
+            }
+        });
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.idempotency.cleanup-interval:3600000}")
+    @Transactional
+    public void deleteExpiredKeys() {
+        final var deleted = transactionIdempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.info(">> Deleted [{}] idempotency keys older than [{}] hours", deleted, retentionHours);
+        }
+    }
+
+    /**
+     * The hex SHA-256 of the fields a create request sets, each prefixed with its length so no two requests share a
+     * canonical form. The amount is stripped of trailing zeros, so 10.5 and 10.50 are the same request. A 32-bit hash
+     * would let two different requests collide, and a reused key would then return the other request's transaction.
+     */
+    private static String requestHash(Transaction transaction) {
+        final var canonical = new StringBuilder();
+        append(canonical, transaction.getTransactionDate() == null ? null : transaction.getTransactionDate().toString());
+        append(canonical, transaction.getCurrencyCode());
+        append(canonical, transaction.getAmount() == null ? null : normalize(transaction.getAmount()));
+        append(canonical, transaction.getComment());
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static void append(StringBuilder canonical, String value) {
+        if (value == null) {
+            canonical.append("-1:");
+        } else {
+            canonical.append(value.length()).append(':').append(value);
+        }
+    }
+
+    private static String normalize(BigDecimal amount) {
+        return amount.signum() == 0 ? "0" : amount.stripTrailingZeros().toPlainString();
+    }
+
+    private record RecentKey(Long transactionId, String requestHash) {
+
+        Long transactionIdFor(String idempotencyKey, Transaction transaction) {
+            if (!requestHash.equals(TransactionIdempotencyKeys.requestHash(transaction))) {
+                throw new TransactionConflictException(String.format("Idempotency-Key [%s] was already used for a different transaction", idempotencyKey));
+            }
+            return transactionId;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.payvyne.transaction.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.exception.TransactionIngestRejectedException;
+import org.payvyne.transaction.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind ingestion, enabled with {@code transaction.ingest.mode=async}.
+ * <p>
+ * Request threads only assign an id and enqueue the transaction; a single writer thread drains the bounded queue
+ * and commits whatever has accumulated as one JDBC batch, so many requests share each commit. Ids come from the
+ * same pooled sequence generator Hibernate uses, so they never collide with synchronously saved transactions and
+ * only one in {@link Transaction#ID_ALLOCATION_SIZE} calls reaches the database. When the queue is full new
+ * transactions are rejected rather than blocking the request thread.
+ * <p>
+ * A transaction is only durable once its batch commits: if the commit fails, the batch is logged and counted
+ * as failed, and transactions still queued when the application is killed are lost.
+ */
+@Service
+@ConditionalOnProperty(name = "transaction.ingest.mode", havingValue = "async")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionIngestQueue {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionStatisticsService transactionStatisticsService;
+    private final TransactionOutbox transactionOutbox;
+    private final TransactionIdempotencyKeys transactionIdempotencyKeys;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transaction.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${transaction.ingest.max-batch-size:500}")
+    private int maxBatchSize;
+
+    private BlockingQueue<Transaction> queue;
+    private final Map<Long, String> pendingIdempotencyKeys = new ConcurrentHashMap<>();
+    private SessionFactoryImplementor sessionFactory;
+    private IdentifierGenerator identifierGenerator;
+    private Thread writer;
+    private volatile boolean running;
+    // shared by enqueueing request threads, taken exclusively by stop() so nothing is queued after the writer's last drain
+    private final ReadWriteLock accepting = new ReentrantReadWriteLock();
+
+    private DistributionSummary batchSizes;
+    private Timer commitLatency;
+    private Counter rejected;
+    private Counter failed;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        identifierGenerator = sessionFactory.getMetamodel().entityPersister(Transaction.class).getIdentifierGenerator();
+
+        Gauge.builder("transaction.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Transactions accepted but not yet written")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("transaction.ingest.batch.size")
+                .description("Transactions written per commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        commitLatency = Timer.builder("transaction.ingest.commit")
+                .description("Time to write and commit one batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        rejected = Counter.builder("transaction.ingest.rejected")
+                .description("Transactions rejected because the queue was full")
+                .register(meterRegistry);
+        failed = Counter.builder("transaction.ingest.failed")
+                .description("Accepted transactions whose batch failed to commit")
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::drain, "transaction-ingest-writer");
+        writer.start();
+        log.info(">> Async ingest started: queue capacity = [{}], max batch size = [{}]", queueCapacity, maxBatchSize);
+    }
+
+    /**
+     * Assigns the transaction its id and queues it for writing. With an Idempotency-Key, a transaction recently
+     * created or queued on this instance with that key is not queued again and its id is returned instead. Keys are
+     * only looked up in memory, so the request thread never waits on the database: a key stored earlier, by another
+     * instance or before a restart, is caught when the writer stores it. The duplicate is dropped there, and retries
+     * get the stored transaction's id from then on.
+     *
+     * @param idempotencyKey the request's Idempotency-Key, or null
+     * @throws TransactionIngestRejectedException when the queue is full or shutting down
+     */
+    public Long enqueue(Transaction transaction, String idempotencyKey) {
+        accepting.readLock().lock();
+        try {
+            if (!running) {
+                throw new TransactionIngestRejectedException("Transaction ingest is shutting down");
+            }
+            return offer(transaction, idempotencyKey);
+        } finally {
+            accepting.readLock().unlock();
+        }
+    }
+
+    private Long offer(Transaction transaction, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            final var existing = transactionIdempotencyKeys.findRecent(idempotencyKey, transaction);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+        final var now = LocalDateTime.now();
+        transaction.setTransactionId(nextId(transaction));
+        transaction.setCreatedDate(now);
+        transaction.setModifiedDate(now);
+        if (idempotencyKey != null) {
+            final var claimed = transactionIdempotencyKeys.claim(idempotencyKey, transaction);
+            if (claimed.isPresent()) {
+                return claimed.get();
+            }
+            pendingIdempotencyKeys.put(transaction.getTransactionId(), idempotencyKey);
+        }
+        if (!queue.offer(transaction)) {
+            rejected.increment();
+            if (idempotencyKey != null) {
+                pendingIdempotencyKeys.remove(transaction.getTransactionId());
+                transactionIdempotencyKeys.release(List.of(idempotencyKey));
+            }
+            throw new TransactionIngestRejectedException("Transaction ingest queue is full, retry later");
+        }
+        return transaction.getTransactionId();
+    }
+
+    private Long nextId(Transaction transaction) {
+        try (var session = sessionFactory.openStatelessSession()) {
+            return (Long) identifierGenerator.generate((SharedSessionContractImplementor) session, transaction);
+        }
+    }
+
+    private void drain() {
+        final var batch = new ArrayList<Transaction>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Transaction> batch) {
+        final var started = System.nanoTime();
+        final var idempotencyKeys = new HashMap<Long, String>();
+        batch.forEach(transaction -> {
+            final var idempotencyKey = pendingIdempotencyKeys.remove(transaction.getTransactionId());
+            if (idempotencyKey != null) {
+                idempotencyKeys.put(transaction.getTransactionId(), idempotencyKey);
+            }
+        });
+        try {
+            final int written = transactionTemplate.execute(status -> {
+                final var transactions = idempotencyKeys.isEmpty() ? batch : batch.stream().filter(transaction -> storeIdempotencyKey(transaction, idempotencyKeys.get(transaction.getTransactionId()))).toList();
+                transactionRepository.insertAll(transactions);
+                transactionStatisticsService.addedAll(transactions);
+                transactionOutbox.createdAll(transactions);
+                return transactions.size();
+            });
+            batchSizes.record(written);
+            commitLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException ex) {
+            failed.increment(batch.size());
+            transactionIdempotencyKeys.release(idempotencyKeys.values());
+            log.error(">> Async ingest: failed to write batch of [{}] transactions with ids {}", batch.size(), batch.stream().map(Transaction::getTransactionId).toList(), ex);
+        }
+    }
+
+    /**
+     * Keys are claimed in memory when queued, so this only fails when the key was stored before this instance saw it;
+     * the claim then already points at the stored transaction, not at the dropped one.
+     */
+    private boolean storeIdempotencyKey(Transaction transaction, String idempotencyKey) {
+        if (idempotencyKey == null || transactionIdempotencyKeys.store(idempotencyKey, transaction)) {
+            return true;
+        }
+        log.warn(">> Async ingest: dropped transaction [{}], idempotency key [{}] was already stored", transaction.getTransactionId(), idempotencyKey);
+        return false;
+    }
+
+    /**
+     * Stops accepting transactions and waits for the writer to flush what is already queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        accepting.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            accepting.writeLock().unlock();
+        }
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        log.info(">> Async ingest stopped: [{}] transactions left unwritten", queue.size());
+    }
+}
@@ -0,0 +1,83 @@
+package org.payvyne.transaction.service;
+
+import lombok.RequiredArgsConstructor;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.domain.TransactionChange;
+import org.payvyne.transaction.domain.TransactionChangeType;
+import org.payvyne.transaction.domain.TransactionState;
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.TransactionChangeDto;
+import org.payvyne.transaction.repository.TransactionChangeRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records transaction creations, status changes and deletions in the outbox table. Like the daily totals, every
+ * write method joins the caller's database transaction, so a change is recorded if and only if it commits.
+ * Comment-only updates are not recorded.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionOutbox {
+
+    private final TransactionChangeRepository transactionChangeRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Transaction transaction) {
+        transactionChangeRepository.save(change(transaction.getTransactionId(), TransactionChangeType.CREATED, transaction.getTransactionStatus(), null));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createdAll(Collection<Transaction> transactions) {
+        transactionChangeRepository.saveAll(transactions.stream()
+                .map(transaction -> change(transaction.getTransactionId(), TransactionChangeType.CREATED, transaction.getTransactionStatus(), null))
+                .toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(TransactionState previous, TransactionStatus transactionStatus) {
+        if (previous.transactionStatus() == transactionStatus) {
+            return;
+        }
+        transactionChangeRepository.save(change(previous.transactionId(), TransactionChangeType.STATUS_CHANGED, transactionStatus, previous.transactionStatus()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removed(TransactionState transaction) {
+        transactionChangeRepository.save(change(transaction.transactionId(), TransactionChangeType.DELETED, null, transaction.transactionStatus()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removedAll() {
+        transactionChangeRepository.save(change(null, TransactionChangeType.ALL_DELETED, null, null));
+    }
+
+    /**
+     * Published changes after the given offset, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionChangeDto> findAfter(long offset, int limit) {
+        return transactionChangeRepository.findPublishedAfter(offset, PageRequest.of(0, limit)).stream().map(TransactionChangeDto::of).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public long findLastOffset() {
+        return transactionChangeRepository.findLastOffset();
+    }
+
+    private static TransactionChange change(Long transactionId, TransactionChangeType changeType, TransactionStatus transactionStatus, TransactionStatus previousStatus) {
+        return TransactionChange.builder()
+                .transactionId(transactionId)
+                .changeType(changeType)
+                .transactionStatus(transactionStatus)
+                .previousStatus(previousStatus)
+                .changedDate(LocalDateTime.now())
+                .build();
+    }
+}
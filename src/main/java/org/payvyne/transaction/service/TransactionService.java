@@ -1,77 +1,381 @@
 package org.payvyne.transaction.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.domain.TransactionState;
 import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.exception.TransactionConflictException;
+import org.payvyne.transaction.exception.TransactionPreconditionFailedException;
+import org.payvyne.transaction.model.CursorPage;
+import org.payvyne.transaction.model.TransactionCursor;
+import org.payvyne.transaction.model.TransactionRetentionResultDto;
+import org.payvyne.transaction.model.TransactionSearchCriteria;
+import org.payvyne.transaction.model.TransactionStatusUpdateDto;
+import org.payvyne.transaction.model.TransactionSummary;
 import org.payvyne.transaction.model.TransactionUpdateDto;
 import org.payvyne.transaction.repository.TransactionRepository;
+import org.payvyne.transaction.repository.TransactionSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
 
+    public static final String TRANSACTIONS_CACHE = "transactions";
+    public static final String OPERATION_TIMER = "transaction.operation";
+    private static final int MAX_STATUS_UPDATES = 1000;
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "transactionDate", "transactionId");
+    private static final Specification<Transaction> ALL = Specification.where(null);
+
     private final TransactionRepository transactionRepository;
+    private final TransactionStatisticsService transactionStatisticsService;
+    private final TransactionOutbox transactionOutbox;
+    private final TransactionIdempotencyKeys transactionIdempotencyKeys;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${transaction.retention.chunk-size:1000}")
+    private int retentionChunkSize;
+
+    private DistributionSummary searchRows;
+
+    @PostConstruct
+    void registerMeters() {
+        searchRows = DistributionSummary.builder("transaction.search.rows")
+                .description("Transactions returned per list or search page")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
-    public Page<Transaction> find(Pageable pageable) {
-        log.info(">> Find all transactions");
-        return transactionRepository.findAll(pageable);
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "list"}, histogram = true)
+    @Transactional(readOnly = true)
+    public Page<TransactionSummary> find(Set<String> fields, Pageable pageable) {
+        log.info(">> Find all transactions: fields = [{}]", fields);
+        return findPage(ALL, fields, pageable);
     }
 
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "create"}, histogram = true)
+    @CachePut(cacheNames = TRANSACTIONS_CACHE, key = "#result.transactionId")
+    @Transactional
     public Transaction save(Transaction transaction) {
         log.info(">> Create/Save a new transaction");
-        return transactionRepository.save(transaction);
+        final var saved = transactionRepository.save(transaction);
+        transactionStatisticsService.added(saved);
+        transactionOutbox.created(saved);
+        return saved;
     }
 
+    /**
+     * Creates the transaction unless one was already created with this Idempotency-Key, in which case nothing is
+     * written and the original transaction's id is returned. A created transaction is cached like one from
+     * {@link #save(Transaction)}; this method returns only the id, so it puts it in the cache itself.
+     *
+     * @throws TransactionConflictException when the key was used for a different transaction
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "create"}, histogram = true)
+    @Transactional
+    public Long save(Transaction transaction, String idempotencyKey) {
+        log.info(">> Create/Save a new transaction with idempotency key [{}]", idempotencyKey);
+        final var recent = transactionIdempotencyKeys.findRecent(idempotencyKey, transaction);
+        if (recent.isPresent()) {
+            return recent.get();
+        }
+        final var saved = transactionRepository.save(transaction);
+        if (!transactionIdempotencyKeys.store(idempotencyKey, saved)) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return transactionIdempotencyKeys.find(idempotencyKey, transaction).orElseThrow();
+        }
+        transactionStatisticsService.added(saved);
+        transactionOutbox.created(saved);
+        cacheManager.getCache(TRANSACTIONS_CACHE).put(saved.getTransactionId(), saved);
+        return saved.getTransactionId();
+    }
+
+    /**
+     * Saves the transactions in one database transaction, flushing every {@code batchSize} rows so each
+     * chunk goes out as a single JDBC batch and the persistence context never holds more than one chunk.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "create-batch"}, histogram = true)
+    @Transactional
+    public List<Transaction> saveAll(List<Transaction> transactions) {
+        log.info(">> Create/Save a batch of [{}] transactions", transactions.size());
+
+        final var saved = new ArrayList<Transaction>(transactions.size());
+        for (int from = 0; from < transactions.size(); from += batchSize) {
+            final var chunk = transactionRepository.saveAll(transactions.subList(from, Math.min(from + batchSize, transactions.size())));
+            transactionStatisticsService.addedAll(chunk);
+            transactionOutbox.createdAll(chunk);
+            saved.addAll(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return saved;
+    }
+
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "get"}, histogram = true)
+    @Cacheable(cacheNames = TRANSACTIONS_CACHE, key = "#id", unless = "#result == null")
     public Optional<Transaction> find(Long id) {
         log.info(">> Find the transaction with id = [()]", id);
         return transactionRepository.findById(id);
     }
 
-    public Page<Transaction> find(LocalDate fromDate, LocalDate toDate, Pageable pageable) {
-        log.info(">> find: from date = [{}], to date = [{}], with a page = [{}]", fromDate, toDate, pageable);
-        return transactionRepository.findByTransactionDateBetween(LocalDateTime.of(fromDate, LocalTime.of(0, 0, 0)), LocalDateTime.of(toDate, LocalTime.of(0, 0, 0)), pageable);
+    /**
+     * The version of a transaction, taken from the cached transaction when there is one and otherwise read on its
+     * own, so conditional requests can be answered without loading the entity.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "get-version"}, histogram = true)
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        final var cached = cacheManager.getCache(TRANSACTIONS_CACHE).get(id, Transaction.class);
+        if (cached != null) {
+            return Optional.of(cached.getVersion());
+        }
+        return transactionRepository.findVersionById(id);
+    }
+
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "search"}, histogram = true)
+    @Transactional(readOnly = true)
+    public Page<TransactionSummary> find(TransactionSearchCriteria criteria, Set<String> fields, Pageable pageable) {
+        log.info(">> find: criteria = [{}], fields = [{}], with a page = [{}]", criteria, fields, pageable);
+        return findPage(TransactionSpecifications.matching(criteria), fields, pageable);
+    }
+
+    /**
+     * Hands every transaction in the range to the consumer in date order, detaching each one once consumed so
+     * memory stays flat however large the range is.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "export"}, histogram = true)
+    @Transactional(readOnly = true)
+    public void export(LocalDate fromDate, LocalDate toDate, Consumer<Transaction> consumer) {
+        log.info(">> export: from date = [{}], to date = [{}]", fromDate, toDate);
+        try (var transactions = transactionRepository.streamByTransactionDateBetween(fromDate.atStartOfDay(), toDate.atStartOfDay())) {
+            transactions.forEach(transaction -> {
+                consumer.accept(transaction);
+                entityManager.detach(transaction);
+            });
+        }
+    }
+
+    /**
+     * Keyset page over all transactions, newest first. An empty cursor starts from the top.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "list"}, histogram = true)
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionSummary> find(Set<String> fields, String cursor, int size) {
+        log.info(">> find: fields = [{}], cursor = [{}], size = [{}]", fields, cursor, size);
+        return findCursorPage(ALL, fields, cursor, size);
+    }
+
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "search"}, histogram = true)
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionSummary> find(TransactionSearchCriteria criteria, Set<String> fields, String cursor, int size) {
+        log.info(">> find: criteria = [{}], fields = [{}], cursor = [{}], size = [{}]", criteria, fields, cursor, size);
+        return findCursorPage(TransactionSpecifications.matching(criteria), fields, cursor, size);
     }
 
+    /**
+     * The count query only runs when the page does not already tell the total, i.e. when it is full.
+     */
+    private Page<TransactionSummary> findPage(Specification<Transaction> specification, Set<String> fields, Pageable pageable) {
+        final var content = transactionRepository.findSummaries(specification, TransactionSummary.fields(fields), pageable);
+        searchRows.record(content.size());
+        return PageableExecutionUtils.getPage(content, pageable, () -> transactionRepository.count(specification));
+    }
+
+    /**
+     * Fetches one row more than the page size; its presence is what tells us there is a next page.
+     */
+    private CursorPage<TransactionSummary> findCursorPage(Specification<Transaction> specification, Set<String> fields, String cursor, int size) {
+        final var keyset = cursor.isEmpty() ? specification : specification.and(TransactionSpecifications.before(TransactionCursor.decode(cursor)));
+        final var summaries = transactionRepository.findSummaries(keyset, TransactionSummary.fields(fields), PageRequest.of(0, size + 1, KEYSET_ORDER));
+        if (summaries.size() <= size) {
+            searchRows.record(summaries.size());
+            return new CursorPage<>(summaries, null);
+        }
+        searchRows.record(size);
+        final var content = summaries.subList(0, size);
+        return new CursorPage<>(content, TransactionCursor.of(content.get(size - 1)).encode());
+    }
+
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "delete"}, histogram = true)
+    @CacheEvict(cacheNames = TRANSACTIONS_CACHE, key = "#id")
+    @Transactional
     public void delete(Long id) {
         log.info(">> delete: transaction with id = [{}]", id);
-        transactionRepository.findById(id).ifPresent(transactionRepository::delete);
+        final var ids = List.of(id);
+        transactionRepository.findStatesByIdInForUpdate(ids).forEach(state -> {
+            transactionStatisticsService.removed(state);
+            transactionOutbox.removed(state);
+        });
+        transactionRepository.deleteByIds(ids);
+    }
+
+    /**
+     * Deletes the transactions dated from {@code fromDate} (inclusive) to {@code toDate} (exclusive), optionally
+     * only those with the given status. Rows are deleted in chunks of {@code retentionChunkSize}, each in its own
+     * database transaction, so locks are held briefly and progress is committed (and logged) as it goes.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "retention"}, histogram = true)
+    public TransactionRetentionResultDto deleteBetween(LocalDate fromDate, LocalDate toDate, TransactionStatus transactionStatus) {
+        log.info(">> delete between: from date = [{}], to date = [{}], status = [{}]", fromDate, toDate, transactionStatus);
+
+        final var limit = PageRequest.of(0, retentionChunkSize);
+        final var cache = cacheManager.getCache(TRANSACTIONS_CACHE);
+        long deleted = 0;
+        int chunks = 0;
+        while (true) {
+            final var chunk = transactionTemplate.execute(status -> {
+                final var states = transactionRepository.findStatesForRetention(fromDate.atStartOfDay(), toDate.atStartOfDay(), transactionStatus, limit);
+                if (states.isEmpty()) {
+                    return List.<Long>of();
+                }
+                states.forEach(state -> {
+                    transactionStatisticsService.removed(state);
+                    transactionOutbox.removed(state);
+                });
+                final var ids = states.stream().map(TransactionState::transactionId).toList();
+                transactionRepository.deleteByIds(ids);
+                return ids;
+            });
+            if (chunk.isEmpty()) {
+                break;
+            }
+            chunk.forEach(cache::evict);
+            deleted += chunk.size();
+            chunks++;
+            log.info(">> delete between: chunk [{}] committed, [{}] transactions deleted so far", chunks, deleted);
+        }
+        return new TransactionRetentionResultDto(deleted, chunks);
     }
 
-    public void update(Long id, TransactionUpdateDto transactionUpdateDto) {
-        log.info(">> update: transactionDto with id = [{}] and update [{}] ", id, transactionUpdateDto);
+    /**
+     * Updates the status and/or comment in place with a single statement instead of loading and merging the entity.
+     *
+     * @param expectedVersion the version the client last read (If-Match), or null to update whatever the version
+     * @return false when there is no transaction with this id
+     * @throws TransactionConflictException when the transaction's status was changed concurrently
+     * @throws TransactionPreconditionFailedException when the transaction no longer has the expected version
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "update"}, histogram = true)
+    @CacheEvict(cacheNames = TRANSACTIONS_CACHE, key = "#id")
+    @Transactional
+    public boolean update(Long id, TransactionUpdateDto transactionUpdateDto, Long expectedVersion) {
+        log.info(">> update: transactionDto with id = [{}], expected version = [{}] and update [{}] ", id, expectedVersion, transactionUpdateDto);
 
-        if (transactionUpdateDto != null && transactionUpdateDto.transactionStatus() == TransactionStatus.CREATED) {
+        if (transactionUpdateDto == null) {
+            throw new IllegalArgumentException("An update is mandatory");
+        }
+        if (transactionUpdateDto.transactionStatus() == TransactionStatus.CREATED) {
             throw new IllegalArgumentException("Already created transactions cannot be recreated");
         }
 
-        transactionRepository.findById(id)
-                .ifPresent(transaction -> {
-                    var transactionBuilder = transaction.toBuilder();
+        if (transactionUpdateDto.transactionStatus() == null && expectedVersion == null) {
+            return transactionUpdateDto.comment() == null
+                    ? transactionRepository.existsById(id)
+                    : transactionRepository.updateComment(id, transactionUpdateDto.comment(), LocalDateTime.now()) == 1;
+        }
+
+        final var previous = transactionRepository.findStateById(id);
+        if (previous.isEmpty()) {
+            return false;
+        }
+        final var version = previous.get().version();
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            throw new TransactionPreconditionFailedException("Transaction has changed, read it again before updating");
+        }
+
+        if (transactionUpdateDto.transactionStatus() == null) {
+            if (transactionUpdateDto.comment() != null && transactionRepository.updateComment(id, version, transactionUpdateDto.comment(), LocalDateTime.now()) == 0) {
+                throw new TransactionPreconditionFailedException("Transaction has changed, read it again before updating");
+            }
+            return true;
+        }
+        if (transactionRepository.updateStatus(id, version, transactionUpdateDto.transactionStatus(), transactionUpdateDto.comment(), LocalDateTime.now()) == 0) {
+            throw expectedVersion == null
+                    ? new TransactionConflictException("Transaction was changed concurrently, retry the update")
+                    : new TransactionPreconditionFailedException("Transaction has changed, read it again before updating");
+        }
+        transactionStatisticsService.statusChanged(previous.get(), transactionUpdateDto.transactionStatus());
+        transactionOutbox.statusChanged(previous.get(), transactionUpdateDto.transactionStatus());
+        return true;
+    }
+
+    /**
+     * Sets the status of many transactions in one statement. The rows are locked while their previous statuses are
+     * read, so the daily totals move by exactly what the update changes.
+     *
+     * @return the number of transactions updated; unknown ids are ignored
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "update-batch"}, histogram = true)
+    @Transactional
+    public int updateStatuses(TransactionStatusUpdateDto transactionStatusUpdateDto) {
+        log.info(">> update statuses: [{}]", transactionStatusUpdateDto);
 
-                    if (transactionUpdateDto.comment() != null) {
-                        transactionBuilder.comment(transactionUpdateDto.comment());
-                    }
+        if (transactionStatusUpdateDto == null || transactionStatusUpdateDto.transactionIds() == null || transactionStatusUpdateDto.transactionIds().isEmpty() || transactionStatusUpdateDto.transactionIds().size() > MAX_STATUS_UPDATES) {
+            throw new IllegalArgumentException(String.format("Between 1 and %d transactionIds are mandatory", MAX_STATUS_UPDATES));
+        }
+        if (transactionStatusUpdateDto.transactionStatus() == null || transactionStatusUpdateDto.transactionStatus() == TransactionStatus.CREATED) {
+            throw new IllegalArgumentException("A transactionStatus other than CREATED is mandatory");
+        }
 
-                    if (transactionUpdateDto.transactionStatus() != null) {
-                        transactionBuilder.transactionStatus(transactionUpdateDto.transactionStatus());
-                    }
+        final var previous = transactionRepository.findStatesByIdInForUpdate(transactionStatusUpdateDto.transactionIds());
+        if (previous.isEmpty()) {
+            return 0;
+        }
+        final var ids = previous.stream().map(TransactionState::transactionId).toList();
+        final var updated = transactionRepository.updateStatuses(ids, transactionStatusUpdateDto.transactionStatus(), transactionStatusUpdateDto.comment(), LocalDateTime.now());
+        previous.forEach(state -> {
+            transactionStatisticsService.statusChanged(state, transactionStatusUpdateDto.transactionStatus());
+            transactionOutbox.statusChanged(state, transactionStatusUpdateDto.transactionStatus());
+        });
 
-                    transactionRepository.save(transactionBuilder.build());
-                });
+        final var cache = cacheManager.getCache(TRANSACTIONS_CACHE);
+        ids.forEach(cache::evict);
+        return updated;
     }
 
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "delete-all"}, histogram = true)
+    @CacheEvict(cacheNames = TRANSACTIONS_CACHE, allEntries = true)
+    @Transactional
     public void deleteAll() {
         log.info(">> delete all transactions");
-        transactionRepository.deleteAll();
+        transactionRepository.deleteAllInBatch();
+        transactionStatisticsService.removedAll();
+        transactionOutbox.removedAll();
     }
 }
@@ -0,0 +1,109 @@
+package org.payvyne.transaction.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.domain.TransactionDailyTotalId;
+import org.payvyne.transaction.domain.TransactionState;
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.TransactionDailyTotalDto;
+import org.payvyne.transaction.repository.TransactionDailyTotalRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Keeps the daily totals per currency and status in step with the transactions table. Every write method joins
+ * the caller's database transaction, so totals and transactions commit or roll back together.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionStatisticsService {
+
+    private static final Comparator<TransactionDailyTotalId> BUCKET_ORDER = Comparator
+            .comparing(TransactionDailyTotalId::getTransactionDay)
+            .thenComparing(TransactionDailyTotalId::getCurrencyCode)
+            .thenComparing(TransactionDailyTotalId::getTransactionStatus);
+
+    private final TransactionDailyTotalRepository transactionDailyTotalRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void added(Transaction transaction) {
+        add(TransactionDailyTotalId.of(transaction), 1, transaction.getAmount());
+    }
+
+    /**
+     * Sums the transactions per bucket first, so a batch costs one update per bucket rather than one per row.
+     * Buckets are updated in a fixed order to avoid deadlocks between concurrent batches.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addedAll(Collection<Transaction> transactions) {
+        final var buckets = new TreeMap<TransactionDailyTotalId, Bucket>(BUCKET_ORDER);
+        transactions.forEach(transaction -> buckets.computeIfAbsent(TransactionDailyTotalId.of(transaction), id -> new Bucket()).add(transaction.getAmount()));
+        buckets.forEach((id, bucket) -> add(id, bucket.count, bucket.amount));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removed(TransactionState transaction) {
+        add(TransactionDailyTotalId.of(transaction, transaction.transactionStatus()), -1, transaction.amount().negate());
+    }
+
+    /**
+     * Moves the transaction's amount from the bucket of its previous status to the bucket of its new one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(TransactionState previous, TransactionStatus transactionStatus) {
+        if (previous.transactionStatus() == transactionStatus) {
+            return;
+        }
+        final var from = TransactionDailyTotalId.of(previous, previous.transactionStatus());
+        final var to = TransactionDailyTotalId.of(previous, transactionStatus);
+        if (BUCKET_ORDER.compare(from, to) < 0) {
+            add(from, -1, previous.amount().negate());
+            add(to, 1, previous.amount());
+        } else {
+            add(to, 1, previous.amount());
+            add(from, -1, previous.amount().negate());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removedAll() {
+        transactionDailyTotalRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Daily totals for every day from {@code fromDate} to {@code toDate} inclusive, optionally for one currency.
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionDailyTotalDto> find(LocalDate fromDate, LocalDate toDate, String currencyCode) {
+        log.info(">> find daily totals: from date = [{}], to date = [{}], currency = [{}]", fromDate, toDate, currencyCode);
+        return transactionDailyTotalRepository.findBetween(fromDate, toDate).stream()
+                .filter(total -> currencyCode == null || currencyCode.equals(total.getId().getCurrencyCode()))
+                .map(total -> new TransactionDailyTotalDto(total.getId().getTransactionDay(), total.getId().getCurrencyCode(), total.getId().getTransactionStatus(), total.getTransactionCount(), total.getTotalAmount()))
+                .toList();
+    }
+
+    private void add(TransactionDailyTotalId id, long count, BigDecimal amount) {
+        transactionDailyTotalRepository.createIfAbsent(id);
+        transactionDailyTotalRepository.add(id, count, amount);
+    }
+
+    private static final class Bucket {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        private void add(BigDecimal amount) {
+            this.count++;
+            this.amount = this.amount.add(amount);
+        }
+    }
+}
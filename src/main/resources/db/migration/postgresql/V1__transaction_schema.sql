@@ -0,0 +1,53 @@
+-- Transactions, range partitioned by month on transaction_date so date-range searches only scan the months they
+-- cover. The primary key has to include the partition key; ids stay unique because they all come from
+-- transaction_seq.
+create sequence transaction_seq start with 1 increment by 50;
+
+create table transaction
+(
+    id                 bigint         not null,
+    transaction_date   timestamp      not null,
+    transaction_status varchar(255)   not null,
+    currency_code      varchar(255)   not null,
+    amount             numeric(10, 2) not null,
+    created_date       timestamp      not null,
+    modified_date      timestamp,
+    comment            varchar(255),
+    version            bigint         not null,
+    primary key (id, transaction_date)
+) partition by range (transaction_date);
+
+-- Indexes created on the parent are created on every partition, present and future.
+create index idx_transaction_date_id on transaction (transaction_date desc, id desc);
+create index idx_transaction_status_date on transaction (transaction_status, transaction_date);
+create index idx_transaction_currency_date on transaction (currency_code, transaction_date);
+
+-- Creates the partition for the month containing the given date, if missing.
+create function create_transaction_partition(month_start date) returns void
+    language plpgsql as
+$$
+declare
+    partition_from date := date_trunc('month', month_start);
+    partition_to   date := partition_from + interval '1 month';
+begin
+    execute format('create table if not exists %I partition of transaction for values from (%L) to (%L)',
+                   'transaction_' || to_char(partition_from, 'YYYY_MM'), partition_from, partition_to);
+end;
+$$;
+
+select create_transaction_partition(month_start::date)
+from generate_series(date '2015-01-01', date_trunc('month', current_date) + interval '24 months', interval '1 month') month_start;
+
+-- Catches dates outside the pre-created months. A month's partition cannot be created while the default one still
+-- holds rows for that month, so keep create_transaction_partition running ahead of the calendar.
+create table transaction_default partition of transaction default;
+
+create table transaction_daily_total
+(
+    transaction_day    date           not null,
+    currency_code      varchar(255)   not null,
+    transaction_status varchar(255)   not null,
+    transaction_count  bigint         not null,
+    total_amount       numeric(19, 2) not null,
+    primary key (transaction_day, currency_code, transaction_status)
+);
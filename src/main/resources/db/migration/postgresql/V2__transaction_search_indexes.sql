@@ -0,0 +1,8 @@
+-- Search filters. Status and currency indexes continue with the keyset order, so a filtered search page is read
+-- already sorted and stops after one page; other filters are applied to the rows read on the way.
+-- varchar_pattern_ops lets "comment like 'prefix%'" use the index whatever the database collation.
+drop index idx_transaction_status_date;
+drop index idx_transaction_currency_date;
+create index idx_transaction_status_date_id on transaction (transaction_status, transaction_date desc, id desc);
+create index idx_transaction_currency_date_id on transaction (currency_code, transaction_date desc, id desc);
+create index idx_transaction_comment on transaction (comment varchar_pattern_ops);
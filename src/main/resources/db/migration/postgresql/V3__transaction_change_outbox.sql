@@ -0,0 +1,17 @@
+-- Outbox of transaction changes, written with the change itself and published by TransactionChangeRelay.
+create sequence transaction_change_seq start with 1 increment by 50;
+
+create table transaction_change
+(
+    id                 bigint       not null primary key,
+    change_offset      bigint,
+    transaction_id     bigint,
+    change_type        varchar(255) not null,
+    transaction_status varchar(255),
+    previous_status    varchar(255),
+    changed_date       timestamp    not null
+);
+
+create unique index idx_transaction_change_offset on transaction_change (change_offset);
+-- Keeps the relay's scan for unpublished changes small however many published changes are retained.
+create index idx_transaction_change_unpublished on transaction_change (id) where change_offset is null;
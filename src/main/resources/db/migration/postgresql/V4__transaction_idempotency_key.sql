@@ -0,0 +1,11 @@
+-- Idempotency-Key of each transaction created with one. A table of its own because a unique index on the
+-- partitioned transaction table would have to include transaction_date, and so could not keep keys unique.
+create table transaction_idempotency_key
+(
+    idempotency_key varchar(255) not null primary key,
+    transaction_id  bigint       not null,
+    request_hash    integer      not null,
+    created_date    timestamp    not null
+);
+
+create index idx_transaction_idempotency_key_created on transaction_idempotency_key (created_date);
@@ -0,0 +1,5 @@
+-- Request hashes become the hex SHA-256 of the request, replacing a 32-bit hash that two different requests could
+-- share. Keys stored before this migration keep their old hash, so a retry of one is answered with 409 until the key
+-- expires instead of being mistaken for, or creating, another transaction.
+alter table transaction_idempotency_key
+    alter column request_hash type varchar(64) using request_hash::text;
@@ -0,0 +1,121 @@
+package org.payvyne.transaction.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.payvyne.transaction.Application;
+import org.payvyne.transaction.domain.Transaction;
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.TransactionDailyTotalDto;
+import org.payvyne.transaction.repository.TransactionDailyTotalRepository;
+import org.payvyne.transaction.repository.TransactionIdempotencyKeyRepository;
+import org.payvyne.transaction.repository.TransactionRepository;
+import org.payvyne.transaction.service.TransactionIdempotencyKeys;
+import org.payvyne.transaction.service.TransactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.payvyne.transaction.api.TransactionFixtures.*;
+
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "transaction.ingest.mode=async")
+public class TransactionAsyncIngestIntegrationTest {
+
+    @Autowired
+    TestRestTemplate testRestTemplate;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionDailyTotalRepository transactionDailyTotalRepository;
+    @Autowired
+    private TransactionIdempotencyKeyRepository transactionIdempotencyKeyRepository;
+    @Autowired
+    private TransactionIdempotencyKeys transactionIdempotencyKeys;
+    @Autowired
+    private TransactionService transactionService;
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        transactionDailyTotalRepository.deleteAll();
+    }
+
+    @Test
+    void testCreatingTransactionIsAcceptedAndWrittenBehind() throws Exception {
+        final var transactionRequestDto = transactionRequest(100.00, "GBP", "2020-01-01T13:30:30", "Create a new transaction");
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto), Long.class);
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.ACCEPTED));
+        final var transactionId = result.getBody();
+        assertThat(transactionId, notNullValue());
+
+        for (int attempt = 0; attempt < 50 && transactionRepository.findById(transactionId).isEmpty(); attempt++) {
+            Thread.sleep(100);
+        }
+        final var transaction = transactionRepository.findById(transactionId).orElseThrow();
+        assertThat(transaction.getAmount(), equalTo(transactionRequestDto.amount()));
+        assertThat(transaction.getTransactionStatus(), equalTo(TransactionStatus.CREATED));
+        assertThat(transaction.getVersion(), equalTo(0L));
+
+        final var totals = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/stats?fromDate={fromDate}&toDate={toDate}", HttpMethod.GET, null,
+                        new ParameterizedTypeReference<List<TransactionDailyTotalDto>>() {
+                        },
+                        Map.of("fromDate", "2020-01-01", "toDate", "2020-01-01"));
+        assertThat(totals.getBody(), contains(new TransactionDailyTotalDto(LocalDate.of(2020, Month.JANUARY, 1), "GBP", TransactionStatus.CREATED, 1, transactionRequestDto.amount())));
+    }
+
+    @Test
+    void testRetriedCreateWithIdempotencyKeyIsQueuedOnce() throws Exception {
+        final var transactionRequestDto = transactionRequest(100.00, "GBP", "2020-01-01T13:30:30", "Retried transaction");
+        final var headers = new HttpHeaders();
+        headers.set("Idempotency-Key", "async-retry");
+
+        final var first = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto, headers), Long.class);
+        final var retry = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto, headers), Long.class);
+
+        assertThat(retry.getBody(), equalTo(first.getBody()));
+        for (int attempt = 0; attempt < 50 && transactionIdempotencyKeyRepository.findById("async-retry").isEmpty(); attempt++) {
+            Thread.sleep(100);
+        }
+        assertThat(transactionIdempotencyKeyRepository.findById("async-retry").orElseThrow().getTransactionId(), equalTo(first.getBody()));
+        assertThat(transactionRepository.count(), equalTo(1L));
+    }
+
+    @Test
+    void testCreateWithIdempotencyKeyStoredBeforeIsDroppedAndAnsweredWithTheStoredTransaction() throws Exception {
+        final var transactionRequestDto = transactionRequest(100.00, "GBP", "2020-01-01T13:30:30", "Stored transaction");
+        final var storedId = transactionService.save(Transaction.builder().transactionDate(LocalDateTime.of(2020, Month.JANUARY, 1, 13, 30, 30)).transactionStatus(TransactionStatus.CREATED)
+                .currencyCode("GBP").amount(transactionRequestDto.amount()).comment("Stored transaction").build(), "async-stored");
+        // as if stored by another instance or before a restart: in the database, not in this instance's memory
+        transactionIdempotencyKeys.release(List.of("async-stored"));
+        final var headers = new HttpHeaders();
+        headers.set("Idempotency-Key", "async-stored");
+
+        final var queued = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto, headers), Long.class);
+        var retry = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto, headers), Long.class);
+        for (int attempt = 0; attempt < 50 && !storedId.equals(retry.getBody()); attempt++) {
+            Thread.sleep(100);
+            retry = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto, headers), Long.class);
+        }
+
+        assertThat(queued.getStatusCode(), equalTo(HttpStatus.ACCEPTED));
+        assertThat(queued.getBody(), not(equalTo(storedId)));
+        assertThat(retry.getBody(), equalTo(storedId));
+        assertThat(transactionRepository.existsById(queued.getBody()), is(false));
+        assertThat(transactionRepository.count(), equalTo(1L));
+    }
+}
@@ -0,0 +1,64 @@
+package org.payvyne.transaction.api;
+
+import org.junit.jupiter.api.Test;
+import org.payvyne.transaction.Application;
+import org.payvyne.transaction.model.AccessTokenDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.payvyne.transaction.api.TransactionFixtures.*;
+
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "transaction.security.password-encoder=bcrypt")
+public class TransactionAuthenticationIntegrationTest {
+
+    @Autowired
+    TestRestTemplate testRestTemplate;
+
+    @Test
+    void testBasicAuthenticationWithBcryptPasswords() {
+        final var first = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).getForEntity("/api/v1/transaction/stats?fromDate=2020-01-01&toDate=2020-01-31", String.class);
+        final var cached = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).getForEntity("/api/v1/transaction/stats?fromDate=2020-01-01&toDate=2020-01-31", String.class);
+        final var wrongPassword = testRestTemplate.withBasicAuth(USERNAME, "wrong").getForEntity("/api/v1/transaction/stats?fromDate=2020-01-01&toDate=2020-01-31", String.class);
+
+        assertThat(first.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(cached.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(wrongPassword.getStatusCode(), equalTo(HttpStatus.UNAUTHORIZED));
+        assertThat(first.getHeaders().get(HttpHeaders.SET_COOKIE), nullValue());
+    }
+
+    @Test
+    void testBearerTokenAuthentication() {
+        final var token = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/token", null, AccessTokenDto.class);
+
+        final var result = testRestTemplate.exchange("/api/v1/transaction/stats?fromDate=2020-01-01&toDate=2020-01-31", HttpMethod.GET, new HttpEntity<>(bearer(token.getBody().accessToken())), String.class);
+        final var tamperedResult = testRestTemplate.exchange("/api/v1/transaction/stats?fromDate=2020-01-01&toDate=2020-01-31", HttpMethod.GET, new HttpEntity<>(bearer(token.getBody().accessToken() + "x")), String.class);
+        final var reissued = testRestTemplate.exchange("/api/v1/token", HttpMethod.POST, new HttpEntity<>(bearer(token.getBody().accessToken())), String.class);
+
+        assertThat(token.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(token.getBody().tokenType(), equalTo("Bearer"));
+        assertThat(token.getBody().expiresIn(), equalTo(900L));
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(tamperedResult.getStatusCode(), equalTo(HttpStatus.UNAUTHORIZED));
+        assertThat(reissued.getStatusCode(), equalTo(HttpStatus.FORBIDDEN));
+    }
+
+    @Test
+    void testTokenRequiresCredentials() {
+        final var result = testRestTemplate.postForEntity("/api/v1/token", null, String.class);
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.UNAUTHORIZED));
+    }
+
+    private static HttpHeaders bearer(String token) {
+        final var headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+}
@@ -0,0 +1,147 @@
+package org.payvyne.transaction.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.payvyne.transaction.Application;
+import org.payvyne.transaction.domain.TransactionChangeType;
+import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.TransactionChangeDto;
+import org.payvyne.transaction.model.TransactionUpdateDto;
+import org.payvyne.transaction.repository.TransactionChangeRepository;
+import org.payvyne.transaction.repository.TransactionDailyTotalRepository;
+import org.payvyne.transaction.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.payvyne.transaction.api.TransactionFixtures.*;
+
+// its own database: the relays of the other cached test contexts would otherwise publish these changes to their own streams
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:changes-db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;Mode=PostgreSQL")
+public class TransactionChangesIntegrationTest {
+
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder().encodeToString("john123:password".getBytes(StandardCharsets.UTF_8));
+
+    @LocalServerPort
+    int port;
+    @Autowired
+    TestRestTemplate testRestTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionDailyTotalRepository transactionDailyTotalRepository;
+    @Autowired
+    private TransactionChangeRepository transactionChangeRepository;
+
+    private long lastOffset;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        for (int attempt = 0; attempt < 50 && jdbcTemplate.queryForObject("select count(*) from transaction_change where change_offset is null", Long.class) > 0; attempt++) {
+            Thread.sleep(100);
+        }
+        lastOffset = transactionChangeRepository.findLastOffset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        transactionDailyTotalRepository.deleteAll();
+    }
+
+    @Test
+    void testChangesAreStreamedFromAnOffset() throws Exception {
+        final var transactionId = createTransaction();
+        testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .put("/api/v1/transaction/{id}", new HttpEntity<>(new TransactionUpdateDto(TransactionStatus.APPROVED, null)), Map.of("id", transactionId));
+        testRestTemplate.withBasicAuth(USERNAME, PASSWORD).delete("/api/v1/transaction/{id}", Map.of("id", transactionId));
+
+        final var changes = readChanges(request("?offset=" + lastOffset).build(), 3);
+        final var resumed = readChanges(request("").header("Last-Event-ID", String.valueOf(changes.get(0).offset())).build(), 2);
+
+        assertThat(changes.stream().map(TransactionChangeDto::changeType).toList(), contains(TransactionChangeType.CREATED, TransactionChangeType.STATUS_CHANGED, TransactionChangeType.DELETED));
+        assertThat(changes.stream().map(TransactionChangeDto::transactionId).toList(), everyItem(equalTo(transactionId)));
+        assertThat(changes.get(1).previousStatus(), equalTo(TransactionStatus.CREATED));
+        assertThat(changes.get(1).transactionStatus(), equalTo(TransactionStatus.APPROVED));
+        assertThat(changes.get(2).previousStatus(), equalTo(TransactionStatus.APPROVED));
+        assertThat(resumed, equalTo(changes.subList(1, 3)));
+    }
+
+    @Test
+    void testNewChangesAreStreamedLive() throws Exception {
+        final var response = HttpClient.newHttpClient().sendAsync(request("").build(), HttpResponse.BodyHandlers.ofLines()).get(10, TimeUnit.SECONDS);
+        final var changes = CompletableFuture.supplyAsync(() -> parseChanges(response.body(), 1));
+
+        final var transactionId = createTransaction();
+
+        final var change = changes.get(10, TimeUnit.SECONDS).get(0);
+        assertThat(response.statusCode(), equalTo(HttpStatus.OK.value()));
+        assertThat(change.transactionId(), equalTo(transactionId));
+        assertThat(change.changeType(), equalTo(TransactionChangeType.CREATED));
+        assertThat(change.offset(), greaterThan(lastOffset));
+    }
+
+    @Test
+    void testStreamingFromNegativeOffset() throws Exception {
+        final var response = HttpClient.newHttpClient().send(request("?offset=-1").build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode(), equalTo(HttpStatus.BAD_REQUEST.value()));
+    }
+
+    private Long createTransaction() {
+        final var transactionRequestDto = transactionRequest(100.00, "GBP", "2020-01-01T13:30:30", "change");
+        return testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto), Long.class).getBody();
+    }
+
+    private HttpRequest.Builder request(String query) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/transaction/changes" + query))
+                .header("Authorization", AUTHORIZATION)
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(10));
+    }
+
+    private List<TransactionChangeDto> readChanges(HttpRequest request, int count) throws Exception {
+        final var response = HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofLines()).get(10, TimeUnit.SECONDS);
+        return CompletableFuture.supplyAsync(() -> parseChanges(response.body(), count)).get(10, TimeUnit.SECONDS);
+    }
+
+    private List<TransactionChangeDto> parseChanges(Stream<String> lines, int count) {
+        try (lines) {
+            return lines.filter(line -> line.startsWith("data:")).limit(count).map(line -> {
+                try {
+                    return objectMapper.readValue(line.substring("data:".length()), TransactionChangeDto.class);
+                } catch (JsonProcessingException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }).toList();
+        }
+    }
+}
@@ -1,34 +1,55 @@
 package org.payvyne.transaction.api;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.payvyne.transaction.Application;
 import org.payvyne.transaction.domain.Transaction;
 import org.payvyne.transaction.domain.TransactionStatus;
+import org.payvyne.transaction.model.CursorPage;
+import org.payvyne.transaction.model.TransactionBatchResultDto;
+import org.payvyne.transaction.model.TransactionDailyTotalDto;
 import org.payvyne.transaction.model.TransactionRequestDto;
+import org.payvyne.transaction.model.TransactionRetentionResultDto;
+import org.payvyne.transaction.model.TransactionStatusUpdateDto;
+import org.payvyne.transaction.model.TransactionSummary;
 import org.payvyne.transaction.model.TransactionUpdateDto;
+import org.payvyne.transaction.repository.TransactionDailyTotalRepository;
 import org.payvyne.transaction.repository.TransactionRepository;
+import org.payvyne.transaction.service.TransactionIdempotencyKeys;
+import org.payvyne.transaction.service.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.cache.CacheManager;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URI;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.payvyne.transaction.api.TransactionFixtures.*;
 
+@AutoConfigureMetrics
 @SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class TransactionControllerIntegrationTest {
 
@@ -37,10 +58,17 @@ public class TransactionControllerIntegrationTest {
     LocalDateTime testTransactionDate = LocalDateTime.of(2020, Month.JANUARY, 1, 13, 30, 30);
     @Autowired
     private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionDailyTotalRepository transactionDailyTotalRepository;
+    @Autowired
+    private TransactionIdempotencyKeys transactionIdempotencyKeys;
+    @Autowired
+    private CacheManager cacheManager;
 
     @AfterEach
     void tearDown() {
         transactionRepository.deleteAll();
+        transactionDailyTotalRepository.deleteAll();
     }
 
     @Test
@@ -214,4 +242,532 @@ public class TransactionControllerIntegrationTest {
         assertThat(updatedOptionalTransaction.get().getTransactionStatus(), equalTo(TransactionStatus.APPROVED));
         assertThat(updatedOptionalTransaction.get().getComment(), equalTo("Approved transaction"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreatingTransactionBatch() {
+        final var transactionRequestDtos = List.of(
+                transactionRequest(100.00, "GBP", testTransactionDate, "first"),
+                transactionRequest(200.00, "EUR", testTransactionDate, "second"));
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(transactionRequestDtos),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        });
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.CREATED));
+        assertThat(result.getBody(), hasSize(2));
+        assertThat(transactionRepository.findById(result.getBody().get(0).transactionId()).get().getComment(), equalTo("first"));
+        assertThat(transactionRepository.findById(result.getBody().get(1).transactionId()).get().getCurrencyCode(), equalTo("EUR"));
+    }
+
+    @Test
+    void testCreatingTransactionBatchFromNdjson() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        final var body = """
+                {"amount":10.50,"currencyCode":"GBP","transactionDate":"2020-01-01T13:30:30","comment":"first"}
+                {"amount":20.75,"currencyCode":"USD","transactionDate":"2020-01-02T13:30:30","comment":"second"}
+                """;
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(body, headers),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        });
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.CREATED));
+        assertThat(result.getBody(), hasSize(2));
+        assertThat(transactionRepository.count(), equalTo(2L));
+    }
+
+    @Test
+    void testCreatingTransactionBatchWithInvalidRowStoresNothing() {
+        final var transactionRequestDtos = List.of(
+                transactionRequest(100.00, "GBP", testTransactionDate, "valid"),
+                transactionRequest(200.00, "XXXX", testTransactionDate, "invalid currency"));
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(transactionRequestDtos),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        });
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+        assertThat(result.getBody(), hasSize(1));
+        assertThat(result.getBody().get(0).row(), equalTo(1));
+        assertThat(transactionRepository.count(), equalTo(0L));
+    }
+
+    @Test
+    void testCreatingTransactionBatchWithRowThatIsNotAnObject() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        final var body = """
+                [{"amount":10.50,"currencyCode":"GBP","transactionDate":"2020-01-01T13:30:30","comment":"first"},
+                 "junk",
+                 {"amount":20.75,"currencyCode":"USD","transactionDate":"2020-01-02T13:30:30","comment":"third"}]
+                """;
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(body, headers),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        });
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+        assertThat(result.getBody(), hasSize(1));
+        assertThat(result.getBody().get(0).row(), equalTo(1));
+        assertThat(result.getBody().get(0).error(), equalTo(TransactionRequestParser.INVALID_REQUEST));
+        assertThat(transactionRepository.count(), equalTo(0L));
+    }
+
+    @Test
+    void testExportingTransactionsBetweenDates() {
+        final var transactions = List.of(
+                Transaction.builder().transactionDate(testTransactionDate).transactionStatus(TransactionStatus.CREATED).currencyCode("GBP").amount(BigDecimal.valueOf(300.00).setScale(2, RoundingMode.HALF_UP)).comment("in range").build(),
+                Transaction.builder().transactionDate(testTransactionDate.plusDays(1)).transactionStatus(TransactionStatus.APPROVED).currencyCode("EUR").amount(BigDecimal.valueOf(150.00).setScale(2, RoundingMode.HALF_UP)).comment("in range, with \"quotes\", and commas").build(),
+                Transaction.builder().transactionDate(testTransactionDate.plusYears(1)).transactionStatus(TransactionStatus.ACTIVE).currencyCode("GBP").amount(BigDecimal.valueOf(1000.00).setScale(2, RoundingMode.HALF_UP)).comment("out of range").build());
+
+        transactionRepository.saveAll(transactions);
+
+        final var ndjson = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .getForEntity("/api/v1/transaction/export?fromDate={fromDate}&toDate={toDate}", String.class, Map.of("fromDate", "2020-01-01", "toDate", "2020-02-01"));
+
+        assertThat(ndjson.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(ndjson.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON), equalTo(true));
+        assertThat(ndjson.getBody().lines().toList(), hasSize(2));
+        assertThat(ndjson.getBody(), not(containsString("out of range")));
+
+        final var csv = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .getForEntity("/api/v1/transaction/export?fromDate={fromDate}&toDate={toDate}&format=csv", String.class, Map.of("fromDate", "2020-01-01", "toDate", "2020-02-01"));
+
+        assertThat(csv.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(csv.getBody().lines().toList(), hasSize(3));
+        assertThat(csv.getBody(), containsString(",APPROVED,EUR,150.00,"));
+        assertThat(csv.getBody(), containsString("\"in range, with \"\"quotes\"\", and commas\""));
+    }
+
+    @Test
+    void testExportingCommentsThatLookLikeFormulasToCsv() {
+        final var transactions = List.of(
+                Transaction.builder().transactionDate(testTransactionDate).transactionStatus(TransactionStatus.CREATED).currencyCode("GBP").amount(BigDecimal.valueOf(300.00).setScale(2, RoundingMode.HALF_UP)).comment("=HYPERLINK(\"http://example.com\")").build(),
+                Transaction.builder().transactionDate(testTransactionDate.plusMinutes(1)).transactionStatus(TransactionStatus.CREATED).currencyCode("GBP").amount(BigDecimal.valueOf(150.00).setScale(2, RoundingMode.HALF_UP)).comment("@SUM(A1:A2)").build(),
+                Transaction.builder().transactionDate(testTransactionDate.plusMinutes(2)).transactionStatus(TransactionStatus.CREATED).currencyCode("GBP").amount(BigDecimal.valueOf(100.00).setScale(2, RoundingMode.HALF_UP)).comment("-refund, partial").build());
+
+        transactionRepository.saveAll(transactions);
+
+        final var csv = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .getForEntity("/api/v1/transaction/export?fromDate={fromDate}&toDate={toDate}&format=csv", String.class, Map.of("fromDate", "2020-01-01", "toDate", "2020-02-01"));
+
+        assertThat(csv.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(csv.getBody(), containsString(",\"'=HYPERLINK(\"\"http://example.com\"\")\"\n"));
+        assertThat(csv.getBody(), containsString(",'@SUM(A1:A2)\n"));
+        assertThat(csv.getBody(), containsString(",\"'-refund, partial\"\n"));
+    }
+
+    @Test
+    void testCreatingCborTransactionBatchWithRowThatIsNotAnArray() throws Exception {
+        final var epochSecond = testTransactionDate.toEpochSecond(ZoneOffset.UTC);
+        final var body = new ByteArrayOutputStream();
+        try (var generator = new CBORMapper().createGenerator(body)) {
+            generator.writeStartArray();
+            generator.writeStartArray();
+            generator.writeNull();
+            generator.writeNumber(epochSecond);
+            generator.writeNull();
+            generator.writeString("GBP");
+            generator.writeNumber(1050);
+            generator.writeEndArray();
+            generator.writeString("junk");
+            generator.writeStartArray();
+            generator.writeNull();
+            generator.writeNumber(epochSecond + 60);
+            generator.writeNull();
+            generator.writeString("EUR");
+            generator.writeNumber(2075);
+            generator.writeEndArray();
+            generator.writeEndArray();
+        }
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(body.toByteArray(), contentType(MediaType.APPLICATION_CBOR)),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        });
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+        assertThat(result.getBody(), hasSize(1));
+        assertThat(result.getBody().get(0).row(), equalTo(1));
+        assertThat(result.getBody().get(0).error(), equalTo(TransactionCbor.INVALID_REQUEST));
+        assertThat(transactionRepository.count(), equalTo(0L));
+    }
+
+    @Test
+    void testCreatingExportingAndReadingTransactionsInCbor() throws Exception {
+        final var epochSecond = testTransactionDate.toEpochSecond(ZoneOffset.UTC);
+        final var cborMapper = new CBORMapper();
+        final var body = new ByteArrayOutputStream();
+        try (var generator = cborMapper.createGenerator(body)) {
+            generator.writeStartArray();
+            generator.writeArray(new long[]{0, epochSecond, 0, 0, 10050}, 0, 5);
+            generator.writeStartArray();
+            generator.writeNull();
+            generator.writeNumber(epochSecond + 60);
+            generator.writeNull();
+            generator.writeString("EUR");
+            generator.writeNumber(2075);
+            generator.writeNull();
+            generator.writeNull();
+            generator.writeString("second");
+            generator.writeEndArray();
+            generator.writeEndArray();
+        }
+
+        final var invalid = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(body.toByteArray(), contentType(MediaType.APPLICATION_CBOR)),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        });
+
+        assertThat(invalid.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+        assertThat(invalid.getBody().get(0).error(), equalTo(TransactionRequestParser.INVALID_CURRENCY_CODE));
+
+        final var rows = cborMapper.readTree(body.toByteArray());
+        ((ArrayNode) rows.get(0)).set(3, TextNode.valueOf("GBP"));
+        final var created = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(cborMapper.writeValueAsBytes(rows), contentType(MediaType.APPLICATION_CBOR)),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        });
+
+        assertThat(created.getStatusCode(), equalTo(HttpStatus.CREATED));
+        final var stored = transactionRepository.findById(created.getBody().get(1).transactionId()).get();
+        assertThat(stored.getTransactionDate(), equalTo(testTransactionDate.plusMinutes(1)));
+        assertThat(stored.getAmount(), equalTo(new BigDecimal("20.75")));
+        assertThat(stored.getComment(), equalTo("second"));
+
+        final var transaction = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/{id}", HttpMethod.GET, new HttpEntity<>(accept(MediaType.APPLICATION_CBOR)), byte[].class, Map.of("id", created.getBody().get(0).transactionId()));
+        final var transactionRow = cborMapper.readTree(transaction.getBody());
+
+        assertThat(transaction.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_CBOR));
+        assertThat(transactionRow.size(), equalTo(9));
+        assertThat(transactionRow.get(1).longValue(), equalTo(epochSecond));
+        assertThat(transactionRow.get(2).textValue(), equalTo("CREATED"));
+        assertThat(transactionRow.get(3).textValue(), equalTo("GBP"));
+        assertThat(transactionRow.get(4).longValue(), equalTo(10050L));
+        assertThat(transactionRow.get(7).isNull(), equalTo(true));
+
+        final var page = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/search?fromDate=2020-01-01&toDate=2020-01-02", HttpMethod.GET, new HttpEntity<>(accept(MediaType.APPLICATION_CBOR)), byte[].class);
+        final var pageRows = cborMapper.readTree(page.getBody()).get("content");
+
+        assertThat(pageRows.size(), equalTo(2));
+        assertThat(pageRows.get(0).get(4).longValue(), equalTo(2075L));
+        assertThat(pageRows.get(0).get(7).textValue(), equalTo("second"));
+
+        final var export = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .getForEntity("/api/v1/transaction/export?fromDate=2020-01-01&toDate=2020-01-02&format=cbor", byte[].class);
+        final var reimported = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(export.getBody(), contentType(MediaType.APPLICATION_CBOR)),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        });
+
+        assertThat(export.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_CBOR));
+        assertThat(cborMapper.readTree(export.getBody()).size(), equalTo(2));
+        assertThat(reimported.getStatusCode(), equalTo(HttpStatus.CREATED));
+        assertThat(transactionRepository.count(), equalTo(4L));
+    }
+
+    @Test
+    void testFindingTransactionsByCursor() {
+        final var transactions = List.of(
+                Transaction.builder().transactionDate(testTransactionDate).transactionStatus(TransactionStatus.CREATED).currencyCode("GBP").amount(BigDecimal.valueOf(100.00).setScale(2, RoundingMode.HALF_UP)).comment("oldest").build(),
+                Transaction.builder().transactionDate(testTransactionDate.plusDays(1)).transactionStatus(TransactionStatus.CREATED).currencyCode("GBP").amount(BigDecimal.valueOf(200.00).setScale(2, RoundingMode.HALF_UP)).comment("middle").build(),
+                Transaction.builder().transactionDate(testTransactionDate.plusDays(1)).transactionStatus(TransactionStatus.CREATED).currencyCode("GBP").amount(BigDecimal.valueOf(300.00).setScale(2, RoundingMode.HALF_UP)).comment("newest").build());
+
+        transactionRepository.saveAll(transactions);
+
+        final var firstPage = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction?cursor=&size=2", HttpMethod.GET, null,
+                        new ParameterizedTypeReference<CursorPage<Transaction>>() {
+                        });
+
+        assertThat(firstPage.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(firstPage.getBody().content().stream().map(Transaction::getComment).toList(), contains("newest", "middle"));
+        assertThat(firstPage.getBody().nextCursor(), notNullValue());
+
+        final var lastPage = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/search?fromDate={fromDate}&toDate={toDate}&cursor={cursor}&size=2", HttpMethod.GET, null,
+                        new ParameterizedTypeReference<CursorPage<Transaction>>() {
+                        },
+                        Map.of("fromDate", "2019-12-01", "toDate", "2020-12-01", "cursor", firstPage.getBody().nextCursor()));
+
+        assertThat(lastPage.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(lastPage.getBody().content().stream().map(Transaction::getComment).toList(), contains("oldest"));
+        assertThat(lastPage.getBody().nextCursor(), nullValue());
+    }
+
+    @Test
+    void testUpdateTransactionInvalidatesCachedTransaction() {
+        final var transaction = transactionRepository.save(Transaction.builder()
+                .transactionDate(testTransactionDate)
+                .transactionStatus(TransactionStatus.ACTIVE)
+                .currencyCode("GBP")
+                .amount(BigDecimal.valueOf(900).setScale(2, RoundingMode.HALF_UP))
+                .comment("client")
+                .build());
+
+        final var hits = cacheGets("hit");
+        final var misses = cacheGets("miss");
+        final var client = testRestTemplate.withBasicAuth(USERNAME, PASSWORD);
+
+        final var loaded = client.getForEntity("/api/v1/transaction/{id}", Transaction.class, Map.of("id", transaction.getTransactionId()));
+        final var cached = client.getForEntity("/api/v1/transaction/{id}", Transaction.class, Map.of("id", transaction.getTransactionId()));
+        client.put("/api/v1/transaction/{id}", new HttpEntity<>(new TransactionUpdateDto(TransactionStatus.APPROVED, "Approved transaction")), Map.of("id", transaction.getTransactionId()));
+        final var updated = client.getForEntity("/api/v1/transaction/{id}", Transaction.class, Map.of("id", transaction.getTransactionId()));
+
+        assertThat(loaded.getBody().getTransactionStatus(), equalTo(TransactionStatus.ACTIVE));
+        assertThat(cached.getBody().getTransactionStatus(), equalTo(TransactionStatus.ACTIVE));
+        assertThat(updated.getBody().getTransactionStatus(), equalTo(TransactionStatus.APPROVED));
+        assertThat(cacheGets("hit") - hits, equalTo(1.0));
+        assertThat(cacheGets("miss") - misses, equalTo(2.0));
+    }
+
+    @Test
+    void testOperationTimingsAreExportedForPrometheus() {
+        final var transactionRequestDto = transactionRequest(100.00, "GBP", "2020-01-01T10:00:00", "timed");
+        final var created = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto), Long.class);
+        testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .getForEntity("/api/v1/transaction/search?fromDate={fromDate}&toDate={toDate}", String.class, Map.of("fromDate", "2020-01-01", "toDate", "2020-01-02"));
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(created.getStatusCode(), equalTo(HttpStatus.CREATED));
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(result.getBody(), allOf(
+                containsString("transaction_operation_seconds_bucket{"),
+                containsString("operation=\"create\""),
+                containsString("transaction_search_rows_bucket{"),
+                containsString("spring_data_repository_invocations_seconds_bucket{"),
+                containsString("hikaricp_connections_acquire_seconds_bucket{")));
+    }
+
+    @Test
+    void testDailyTotalsFollowCreatesUpdatesAndDeletes() {
+        final var transactionRequestDtos = List.of(
+                transactionRequest(100.00, "GBP", "2020-01-01T10:00:00", "first"),
+                transactionRequest(50.50, "GBP", "2020-01-01T11:00:00", "second"),
+                transactionRequest(20.00, "EUR", "2020-01-02T11:00:00", "third"));
+
+        final var created = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(transactionRequestDtos),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        }).getBody();
+
+        testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .put("/api/v1/transaction/{id}", new HttpEntity<>(new TransactionUpdateDto(TransactionStatus.APPROVED, null)), Map.of("id", created.get(0).transactionId()));
+        testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .delete("/api/v1/transaction/{id}", Map.of("id", created.get(2).transactionId()));
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/stats?fromDate={fromDate}&toDate={toDate}", HttpMethod.GET, null,
+                        new ParameterizedTypeReference<List<TransactionDailyTotalDto>>() {
+                        },
+                        Map.of("fromDate", "2020-01-01", "toDate", "2020-01-31"));
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(result.getBody(), containsInAnyOrder(
+                new TransactionDailyTotalDto(LocalDate.of(2020, Month.JANUARY, 1), "GBP", TransactionStatus.CREATED, 1, BigDecimal.valueOf(50.50).setScale(2, RoundingMode.HALF_UP)),
+                new TransactionDailyTotalDto(LocalDate.of(2020, Month.JANUARY, 1), "GBP", TransactionStatus.APPROVED, 1, BigDecimal.valueOf(100.00).setScale(2, RoundingMode.HALF_UP))));
+    }
+
+    @Test
+    void testDeleteTransactionsForRetention() {
+        final var transactionRequestDtos = List.of(
+                transactionRequest(100.00, "GBP", "2019-12-31T23:59:59", "before"),
+                transactionRequest(50.50, "GBP", "2020-01-01T00:00:00", "first"),
+                transactionRequest(20.00, "EUR", "2020-01-15T11:00:00", "second"),
+                transactionRequest(10.00, "EUR", "2020-02-01T00:00:00", "after"));
+
+        final var created = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(transactionRequestDtos),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        }).getBody();
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/retention?fromDate={fromDate}&toDate={toDate}", HttpMethod.DELETE, null, TransactionRetentionResultDto.class,
+                        Map.of("fromDate", "2020-01-01", "toDate", "2020-02-01"));
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(result.getBody().deleted(), equalTo(2L));
+        assertThat(transactionRepository.findAll().stream().map(Transaction::getTransactionId).toList(),
+                containsInAnyOrder(created.get(0).transactionId(), created.get(3).transactionId()));
+
+        final var totals = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/stats?fromDate={fromDate}&toDate={toDate}", HttpMethod.GET, null,
+                        new ParameterizedTypeReference<List<TransactionDailyTotalDto>>() {
+                        },
+                        Map.of("fromDate", "2020-01-01", "toDate", "2020-01-31"));
+
+        assertThat(totals.getBody(), empty());
+    }
+
+    @Test
+    void testSearchingTransactionsWithFilters() {
+        final var transactionRequestDtos = List.of(
+                transactionRequest(100.00, "GBP", "2020-01-01T10:00:00", "client_1 rent"),
+                transactionRequest(250.00, "GBP", "2020-01-02T10:00:00", "client_1 deposit"),
+                transactionRequest(300.00, "GBP", "2020-01-03T10:00:00", "client11 rent"),
+                transactionRequest(200.00, "EUR", "2020-01-04T10:00:00", "client_1 rent"));
+        final var created = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(transactionRequestDtos),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        }).getBody();
+        testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .put("/api/v1/transaction/{id}", new HttpEntity<>(new TransactionUpdateDto(TransactionStatus.APPROVED, null)), Map.of("id", created.get(1).transactionId()));
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/search?fromDate=2020-01-01&toDate=2020-01-31&currencyCode=GBP&minAmount=100&maxAmount=299.99&commentPrefix=client_1", HttpMethod.GET, null,
+                        new ParameterizedTypeReference<RestPageResponse<Transaction>>() {
+                        }, Map.of());
+        final var cursorResult = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/search?fromDate=2020-01-01&toDate=2020-01-31&transactionStatus=CREATED&commentPrefix=client&cursor=&size=2", HttpMethod.GET, null,
+                        new ParameterizedTypeReference<CursorPage<Transaction>>() {
+                        }, Map.of());
+        final var invalidResult = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .getForEntity("/api/v1/transaction/search?fromDate=2020-01-01&toDate=2020-01-31&minAmount=10&maxAmount=5", String.class);
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(result.getBody().getContent().stream().map(Transaction::getTransactionId).toList(), contains(created.get(1).transactionId(), created.get(0).transactionId()));
+        assertThat(result.getBody().getContent().stream().map(Transaction::getComment).toList(), contains("client_1 deposit", "client_1 rent"));
+        assertThat(result.getBody().getTotalElements(), equalTo(2L));
+        assertThat(cursorResult.getBody().content().stream().map(Transaction::getTransactionId).toList(), contains(created.get(3).transactionId(), created.get(2).transactionId()));
+        assertThat(cursorResult.getBody().nextCursor(), notNullValue());
+        assertThat(invalidResult.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void testSearchingTransactionsWithSelectedFields() {
+        final var transactionRequestDto = transactionRequest(100.00, "GBP", "2020-01-01T10:00:00", "selected fields");
+        final var id = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto), Long.class).getBody();
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/search?fromDate=2020-01-01&toDate=2020-01-31&fields=amount&cursor=", HttpMethod.GET, null,
+                        new ParameterizedTypeReference<CursorPage<TransactionSummary>>() {
+                        }, Map.of());
+        final var unknownFieldResult = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .getForEntity("/api/v1/transaction/search?fromDate=2020-01-01&toDate=2020-01-31&fields=createdBy", String.class);
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(result.getBody().content(), contains(new TransactionSummary(id, LocalDateTime.of(2020, Month.JANUARY, 1, 10, 0), null, null, transactionRequestDto.amount(), null)));
+        assertThat(unknownFieldResult.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void testConditionalRequestsWithETags() {
+        final var transaction = transactionRepository.save(Transaction.builder().transactionDate(testTransactionDate).transactionStatus(TransactionStatus.CREATED).currencyCode("GBP").amount(BigDecimal.valueOf(900).setScale(2, RoundingMode.HALF_UP)).comment("etag").build());
+        final var client = testRestTemplate.withBasicAuth(USERNAME, PASSWORD);
+
+        final var first = client.getForEntity("/api/v1/transaction/{id}", Transaction.class, Map.of("id", transaction.getTransactionId()));
+        final var eTag = first.getHeaders().getETag();
+        final var notModified = client.exchange("/api/v1/transaction/{id}", HttpMethod.GET, new HttpEntity<>(headers(HttpHeaders.IF_NONE_MATCH, eTag)), String.class, Map.of("id", transaction.getTransactionId()));
+        final var staleUpdate = client.exchange("/api/v1/transaction/{id}", HttpMethod.PUT, new HttpEntity<>(new TransactionUpdateDto(TransactionStatus.APPROVED, null), headers(HttpHeaders.IF_MATCH, "\"42\"")), String.class, Map.of("id", transaction.getTransactionId()));
+        final var update = client.exchange("/api/v1/transaction/{id}", HttpMethod.PUT, new HttpEntity<>(new TransactionUpdateDto(TransactionStatus.APPROVED, null), headers(HttpHeaders.IF_MATCH, eTag)), Void.class, Map.of("id", transaction.getTransactionId()));
+        final var replayedUpdate = client.exchange("/api/v1/transaction/{id}", HttpMethod.PUT, new HttpEntity<>(new TransactionUpdateDto(null, "replayed"), headers(HttpHeaders.IF_MATCH, eTag)), String.class, Map.of("id", transaction.getTransactionId()));
+        final var modified = client.exchange("/api/v1/transaction/{id}", HttpMethod.GET, new HttpEntity<>(headers(HttpHeaders.IF_NONE_MATCH, eTag)), Transaction.class, Map.of("id", transaction.getTransactionId()));
+
+        assertThat(eTag, equalTo("\"0\""));
+        assertThat(notModified.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(notModified.getHeaders().getETag(), equalTo(eTag));
+        assertThat(notModified.getBody(), nullValue());
+        assertThat(staleUpdate.getStatusCode(), equalTo(HttpStatus.PRECONDITION_FAILED));
+        assertThat(update.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(replayedUpdate.getStatusCode(), equalTo(HttpStatus.PRECONDITION_FAILED));
+        assertThat(modified.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(modified.getHeaders().getETag(), equalTo("\"1\""));
+        assertThat(modified.getBody().getTransactionStatus(), equalTo(TransactionStatus.APPROVED));
+        assertThat(modified.getBody().getComment(), equalTo("etag"));
+    }
+
+    @Test
+    void testRetriedCreateWithIdempotencyKeyReturnsTheOriginalTransaction() {
+        final var transactionRequestDto = transactionRequest(100.00, "GBP", "2020-01-01T10:00:00", "Retried transaction");
+        final var otherRequestDto = transactionRequest(200.00, "GBP", "2020-01-01T10:00:00", "Other transaction");
+        final var client = testRestTemplate.withBasicAuth(USERNAME, PASSWORD);
+
+        final var first = client.postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto, headers("Idempotency-Key", "retry-1")), Long.class);
+        final var retry = client.postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto, headers("Idempotency-Key", "retry-1")), Long.class);
+        transactionIdempotencyKeys.release(List.of("retry-1"));
+        final var retryAfterEviction = client.postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto, headers("Idempotency-Key", "retry-1")), Long.class);
+        final var retryWithOtherScale = client.postForEntity("/api/v1/transaction/", new HttpEntity<>(new TransactionRequestDto(new BigDecimal("100.0"), "GBP", "2020-01-01T10:00:00", "Retried transaction"), headers("Idempotency-Key", "retry-1")), Long.class);
+        final var reusedKey = client.postForEntity("/api/v1/transaction/", new HttpEntity<>(otherRequestDto, headers("Idempotency-Key", "retry-1")), String.class);
+
+        assertThat(first.getStatusCode(), equalTo(HttpStatus.CREATED));
+        assertThat(cacheManager.getCache(TransactionService.TRANSACTIONS_CACHE).get(first.getBody(), Transaction.class).getComment(), equalTo("Retried transaction"));
+        assertThat(retry.getBody(), equalTo(first.getBody()));
+        assertThat(retryAfterEviction.getBody(), equalTo(first.getBody()));
+        assertThat(retryWithOtherScale.getBody(), equalTo(first.getBody()));
+        assertThat(reusedKey.getStatusCode(), equalTo(HttpStatus.CONFLICT));
+        assertThat(transactionRepository.count(), equalTo(1L));
+    }
+
+    @Test
+    void testCreatingTransactionWithInvalidDate() {
+        final var transactionRequestDto = transactionRequest(100.00, "GBP", "2020-02-30T10:00:00", "Invalid date");
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequestDto), String.class);
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+        assertThat(result.getBody(), equalTo(TransactionRequestParser.INVALID_TRANSACTION_DATE));
+        assertThat(transactionRepository.count(), equalTo(0L));
+    }
+
+    @Test
+    void testUpdateUnknownTransaction() {
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/{id}", HttpMethod.PUT, new HttpEntity<>(new TransactionUpdateDto(TransactionStatus.APPROVED, null)), Void.class, Map.of("id", Long.MAX_VALUE));
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    void testUpdateTransactionStatuses() {
+        final var transactions = transactionRepository.saveAll(List.of(
+                Transaction.builder().transactionDate(testTransactionDate).transactionStatus(TransactionStatus.ACTIVE).currencyCode("GBP").amount(BigDecimal.valueOf(100).setScale(2, RoundingMode.HALF_UP)).comment("first").build(),
+                Transaction.builder().transactionDate(testTransactionDate).transactionStatus(TransactionStatus.ACTIVE).currencyCode("GBP").amount(BigDecimal.valueOf(200).setScale(2, RoundingMode.HALF_UP)).comment("second").build(),
+                Transaction.builder().transactionDate(testTransactionDate).transactionStatus(TransactionStatus.ACTIVE).currencyCode("GBP").amount(BigDecimal.valueOf(300).setScale(2, RoundingMode.HALF_UP)).comment("untouched").build()));
+
+        final var statusUpdate = new TransactionStatusUpdateDto(List.of(transactions.get(0).getTransactionId(), transactions.get(1).getTransactionId(), Long.MAX_VALUE), TransactionStatus.CANCELLED, null);
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/status", HttpMethod.PATCH, new HttpEntity<>(statusUpdate), Integer.class);
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(result.getBody(), equalTo(2));
+
+        final var updated = transactionRepository.findById(transactions.get(0).getTransactionId()).get();
+        assertThat(updated.getTransactionStatus(), equalTo(TransactionStatus.CANCELLED));
+        assertThat(updated.getComment(), equalTo("first"));
+        assertThat(updated.getVersion(), equalTo(transactions.get(0).getVersion() + 1));
+        assertThat(transactionRepository.findById(transactions.get(2).getTransactionId()).get().getTransactionStatus(), equalTo(TransactionStatus.ACTIVE));
+    }
+
+    private double cacheGets(String result) {
+        final var metric = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .getForObject("/actuator/metrics/cache.gets?tag=cache:transactions&tag=result:{result}", JsonNode.class, Map.of("result", result));
+        return metric.get("measurements").get(0).get("value").doubleValue();
+    }
+
+    private static HttpHeaders headers(String name, String value) {
+        final var headers = new HttpHeaders();
+        headers.set(name, value);
+        return headers;
+    }
+
+    private static HttpHeaders contentType(MediaType mediaType) {
+        final var headers = new HttpHeaders();
+        headers.setContentType(mediaType);
+        return headers;
+    }
+
+    private static HttpHeaders accept(MediaType mediaType) {
+        final var headers = new HttpHeaders();
+        headers.setAccept(List.of(mediaType));
+        return headers;
+    }
+}
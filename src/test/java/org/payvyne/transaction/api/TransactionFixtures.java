@@ -0,0 +1,56 @@
+package org.payvyne.transaction.api;
+
+import org.payvyne.transaction.model.TransactionRequestDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Credentials and transaction requests shared by the integration tests and the load benchmarks, so both talk to the
+ * API the same way.
+ */
+public final class TransactionFixtures {
+
+    public static final String USERNAME = "john123";
+    public static final String PASSWORD = "password";
+    public static final DateTimeFormatter TRANSACTION_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    public static final LocalDateTime FIRST_TRANSACTION_DATE = LocalDateTime.of(2020, Month.JANUARY, 1, 0, 0);
+
+    private static final String[] CURRENCIES = {"GBP", "EUR", "USD"};
+
+    private TransactionFixtures() {
+    }
+
+    public static TransactionRequestDto transactionRequest(double amount, String currencyCode, LocalDateTime transactionDate, String comment) {
+        return transactionRequest(amount, currencyCode, transactionDate.format(TRANSACTION_DATE_FORMAT), comment);
+    }
+
+    /**
+     * With the transaction date as sent, e.g. {@code 2020-01-01T10:00:00}, or an invalid one.
+     */
+    public static TransactionRequestDto transactionRequest(double amount, String currencyCode, String transactionDate, String comment) {
+        return new TransactionRequestDto(BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP), currencyCode, transactionDate, comment);
+    }
+
+    /**
+     * The {@code i}th of a sequence of transactions one minute apart from {@link #FIRST_TRANSACTION_DATE}, spread over
+     * three currencies and a thousand clients, e.g. the comment {@code client42 payment 1042}.
+     */
+    public static TransactionRequestDto transactionRequest(int i) {
+        return new TransactionRequestDto(BigDecimal.valueOf(i % 100_000 + 1, 2), CURRENCIES[i % CURRENCIES.length],
+                FIRST_TRANSACTION_DATE.plusMinutes(i).format(TRANSACTION_DATE_FORMAT), "client" + i % 1000 + " payment " + i);
+    }
+
+    public static List<TransactionRequestDto> transactionRequests(int from, int count) {
+        final var transactionRequests = new ArrayList<TransactionRequestDto>(count);
+        for (int i = from; i < from + count; i++) {
+            transactionRequests.add(transactionRequest(i));
+        }
+        return transactionRequests;
+    }
+}
@@ -0,0 +1,89 @@
+package org.payvyne.transaction.api;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.payvyne.transaction.Application;
+import org.payvyne.transaction.model.TransactionBatchResultDto;
+import org.payvyne.transaction.repository.TransactionDailyTotalRepository;
+import org.payvyne.transaction.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.payvyne.transaction.api.TransactionFixtures.*;
+
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("postgres")
+@AutoConfigureEmbeddedDatabase(type = DatabaseType.POSTGRES, provider = DatabaseProvider.ZONKY)
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "initdb refuses to run as root")
+public class TransactionPostgresIntegrationTest {
+
+    @Autowired
+    TestRestTemplate testRestTemplate;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionDailyTotalRepository transactionDailyTotalRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        transactionDailyTotalRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testTransactionsAreStoredInTheirMonthlyPartition() {
+        final var transactionRequestDtos = List.of(
+                transactionRequest(100.00, "GBP", "2020-01-15T10:00:00", "january"),
+                transactionRequest(200.00, "EUR", "2020-02-15T10:00:00", "february"));
+
+        final var created = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .exchange("/api/v1/transaction/batch", HttpMethod.POST, new HttpEntity<>(transactionRequestDtos),
+                        new ParameterizedTypeReference<List<TransactionBatchResultDto>>() {
+                        });
+
+        assertThat(created.getStatusCode(), equalTo(HttpStatus.CREATED));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from transaction_2020_01", Long.class), equalTo(1L));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from transaction_2020_02", Long.class), equalTo(1L));
+    }
+
+    @Test
+    void testDateRangeSearchOnlyScansTheMonthsInRange() {
+        final var plan = String.join("\n", jdbcTemplate.queryForList("explain select * from transaction where transaction_date between timestamp '2020-01-01 00:00:00' and timestamp '2020-01-31 00:00:00'", String.class));
+
+        assertThat(plan, containsString("transaction_2020_01"));
+        assertThat(plan, not(containsString("transaction_2020_02")));
+        assertThat(plan, not(containsString("transaction_default")));
+    }
+
+    @Test
+    void testSearchingTransactionsBetweenDates() {
+        final var transactionRequestDtos = List.of(
+                transactionRequest(100.00, "GBP", "2020-01-15T10:00:00", "in range"),
+                transactionRequest(200.00, "EUR", "2020-03-15T10:00:00", "out of range"));
+        testRestTemplate.withBasicAuth(USERNAME, PASSWORD).postForEntity("/api/v1/transaction/batch", new HttpEntity<>(transactionRequestDtos), String.class);
+
+        final var result = testRestTemplate.withBasicAuth(USERNAME, PASSWORD)
+                .getForEntity("/api/v1/transaction/search?fromDate={fromDate}&toDate={toDate}", String.class, Map.of("fromDate", "2020-01-01", "toDate", "2020-01-31"));
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(result.getBody(), allOf(containsString("in range"), not(containsString("out of range"))));
+    }
+}
@@ -0,0 +1,38 @@
+package org.payvyne.transaction.api;
+
+import org.junit.jupiter.api.Test;
+import org.payvyne.transaction.Application;
+import org.payvyne.transaction.domain.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.payvyne.transaction.api.TransactionFixtures.*;
+
+@ActiveProfiles("prod")
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class TransactionProdProfileIntegrationTest {
+
+    @Autowired
+    TestRestTemplate testRestTemplate;
+
+    @Test
+    void testCreatingAndReadingTransactionWithTheProdProfile() {
+        final var client = testRestTemplate.withBasicAuth(USERNAME, PASSWORD);
+
+        final var created = client.postForEntity("/api/v1/transaction/", new HttpEntity<>(transactionRequest(100.00, "GBP", LocalDateTime.of(2020, Month.JANUARY, 1, 10, 0), "prod profile")), Long.class);
+        final var result = client.getForEntity("/api/v1/transaction/{id}", Transaction.class, created.getBody());
+
+        assertThat(created.getStatusCode(), equalTo(HttpStatus.CREATED));
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(result.getBody().getComment(), equalTo("prod profile"));
+    }
+}
@@ -0,0 +1,82 @@
+package org.payvyne.transaction.api;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.payvyne.transaction.Application;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.payvyne.transaction.api.TransactionFixtures.*;
+
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"transaction.rate-limit.enabled=true", "transaction.rate-limit.search.rate=0.1", "transaction.rate-limit.search.burst=2",
+                "transaction.changes.max-subscribers=1"})
+public class TransactionRateLimitIntegrationTest {
+
+    @Autowired
+    TestRestTemplate testRestTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @LocalServerPort
+    int port;
+
+    @Test
+    void testSearchesBeyondTheBurstAreRejectedPerEndpoint() {
+        final var client = testRestTemplate.withBasicAuth(USERNAME, PASSWORD);
+
+        final var first = client.getForEntity("/api/v1/transaction/search?fromDate=2020-01-01&toDate=2020-01-31", String.class);
+        final var second = client.getForEntity("/api/v1/transaction/search?fromDate=2020-01-01&toDate=2020-01-31", String.class);
+        final var rejected = client.getForEntity("/api/v1/transaction/search?fromDate=2020-01-01&toDate=2020-01-31", String.class);
+        final var otherEndpoint = client.getForEntity("/api/v1/transaction/stats?fromDate=2020-01-01&toDate=2020-01-31", String.class);
+
+        assertThat(first.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(second.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(rejected.getStatusCode(), equalTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(Integer.valueOf(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)), both(greaterThanOrEqualTo(1)).and(lessThanOrEqualTo(10)));
+        assertThat(rejected.getBody(), containsString("GET /api/v1/transaction/search"));
+        assertThat(otherEndpoint.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(meterRegistry.get("transaction.rate-limit.rejected").tag("reason", "rate").counter().count(), equalTo(1.0));
+        assertThat(meterRegistry.get("transaction.rate-limit.concurrency.in-flight").gauge().value(), equalTo(0.0));
+    }
+
+    @Test
+    void testUnauthenticatedRequestsAreNotRateLimited() {
+        final var result = testRestTemplate.getForEntity("/api/v1/transaction/search?fromDate=2020-01-01&toDate=2020-01-31", String.class);
+
+        assertThat(result.getStatusCode(), equalTo(HttpStatus.UNAUTHORIZED));
+    }
+
+    @Test
+    void testChangeStreamsBeyondTheSubscriberLimitAreRejected() throws Exception {
+        final var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/transaction/changes"))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString((USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8)))
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        final var open = HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofLines()).get(10, TimeUnit.SECONDS);
+        try (var lines = open.body()) {
+            final var rejected = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertThat(open.statusCode(), equalTo(HttpStatus.OK.value()));
+            assertThat(rejected.statusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE.value()));
+            assertThat(rejected.headers().firstValue(HttpHeaders.RETRY_AFTER), equalTo(Optional.of("5")));
+        }
+    }
+}